@@ -0,0 +1,135 @@
+import java.util.Random;
+
+/**
+* Generates boards whose score, or number of words, falls in a requested
+* range. Generation is a local search: starting from a random board with
+* English letter frequencies, one tile at a time is replaced and the change
+* is kept unless it moves the board further from the range. Each change is
+* scored incrementally, by recounting only the paths through the changed
+* cell, so a step costs a small fraction of solving the board. A search that
+* stalls starts over from a fresh random board.
+*
+*/
+public class BoardGenerator {
+private static final String LETTERS =
+"EEEEEEEEEEEEAAAAAAAAARRRRRRIIIIIIIIIOOOOOOOOTTTTTTNNNNNNSSSSLLLLCCCUUUDDDPPPMMMHHHGGBBFFYYWKVXZJQ";
+
+private final Lexicon lexicon;
+private final int size;
+private final int minimumWordLength;
+private final int[][] neighbors;
+private final Random random;
+private int maxSteps = 100000;
+private int restartSteps = 2000;
+
+/**
+* @param lexicon The lexicon that words are looked up in.
+* @param size The number of rows and columns of the boards.
+* @param minimumWordLength The minimum number of characters of a scorable
+* word.
+* @param seed The seed of the random generator, so that the same arguments
+* generate the same boards.
+* @throws IllegalArgumentException if lexicon is null, or size or
+* minimumWordLength < 1
+*/
+public BoardGenerator(Lexicon lexicon, int size, int minimumWordLength, long seed) {
+if (lexicon == null || size < 1 || minimumWordLength < 1) {
+throw new IllegalArgumentException();
+}
+this.lexicon = lexicon;
+this.size = size;
+this.minimumWordLength = minimumWordLength;
+neighbors = WordSearchEngine.buildNeighbors(size);
+random = new Random(seed);
+}
+
+/**
+* Limits the search for one board.
+*
+* @param maxSteps The greatest number of tile changes to try in all.
+* @param restartSteps The number of tile changes to try before starting
+* over from a new random board.
+* @throws IllegalArgumentException if either is < 1
+*/
+public void setSteps(int maxSteps, int restartSteps) {
+if (maxSteps < 1 || restartSteps < 1) {
+throw new IllegalArgumentException();
+}
+this.maxSteps = maxSteps;
+this.restartSteps = restartSteps;
+}
+
+/**
+* Generates a board whose scorable words have a cumulative score in
+* [minScore, maxScore].
+*
+* @return the board contents in row-major order, ready for setBoard.
+* @throws IllegalArgumentException if minScore > maxScore
+* @throws IllegalStateException if no such board was found within the
+* step limit.
+*/
+public String[] generateByScore(int minScore, int maxScore) {
+return generate(minScore, maxScore, true);
+}
+
+/**
+* Generates a board with between minWords and maxWords scorable words.
+*
+* @return the board contents in row-major order, ready for setBoard.
+* @throws IllegalArgumentException if minWords > maxWords
+* @throws IllegalStateException if no such board was found within the
+* step limit.
+*/
+public String[] generateByWordCount(int minWords, int maxWords) {
+return generate(minWords, maxWords, false);
+}
+
+private String[] generate(int low, int high, boolean byScore) {
+if (low > high) {
+throw new IllegalArgumentException();
+}
+int steps = 0;
+while (steps < maxSteps) {
+String[] board = new String[size * size];
+for (int i = 0; i < board.length; i++) {
+board[i] = randomTile();
+}
+IncrementalSolver solver = new IncrementalSolver(lexicon, board, neighbors);
+int miss = miss(measure(solver, byScore), low, high);
+for (int i = 0; i < restartSteps && steps < maxSteps; i++, steps++) {
+if (miss == 0) {
+return solver.tiles();
+}
+int cell = random.nextInt(board.length);
+String old = solver.tile(cell);
+solver.setTile(cell, randomTile());
+int next = miss(measure(solver, byScore), low, high);
+if (next <= miss) {
+miss = next;
+} else {
+solver.setTile(cell, old);
+}
+}
+if (miss == 0) {
+return solver.tiles();
+}
+}
+throw new IllegalStateException();
+}
+
+private int measure(IncrementalSolver solver, boolean byScore) {
+return byScore ? solver.score(minimumWordLength) : solver.wordCount(minimumWordLength);
+}
+
+/**
+* @return how far value is outside [low, high].
+*/
+private static int miss(int value, int low, int high) {
+return Math.max(low - value, Math.max(value - high, 0));
+}
+
+private String randomTile() {
+char c = LETTERS.charAt(random.nextInt(LETTERS.length()));
+return c == 'Q' ? "QU" : String.valueOf(c);
+}
+}
@@ -0,0 +1,381 @@
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+* Finds every word of a lexicon that can be traced on a board. A solver is
+* a snapshot of one board and one lexicon; it keeps no search state of its
+* own, so any number of threads may solve disjoint ranges of start cells at
+* the same time.
+*
+*/
+class BoardSolver {
+/** Ranges of at most this many start cells are solved without forking. */
+private static final int SPLIT_THRESHOLD = 4;
+
+private final Lexicon lexicon;
+private final String[] tiles;
+private final int[][] neighbors;
+private final long[] neighborMasks;
+private final int[] startCells;
+private long nodesExpanded;
+private long prefixesPruned;
+
+/**
+* @param lexicon The lexicon to look words up in.
+* @param tiles The board contents in row-major order.
+* @param neighbors The neighbor table of the board.
+* @param neighborMasks The adjacency masks of a board of at most 64 cells,
+* or null to search with the neighbor table.
+* @param tileIndex The tile index of the board.
+*/
+BoardSolver(Lexicon lexicon, String[] tiles, int[][] neighbors, long[] neighborMasks, TileIndex tileIndex) {
+this.lexicon = lexicon;
+this.tiles = tiles;
+this.neighbors = neighbors;
+this.neighborMasks = neighborMasks;
+this.startCells = startCells(lexicon, tileIndex);
+}
+
+/**
+* Returns the cells whose tile starts some word, checking each distinct
+* tile against the lexicon once.
+*/
+private static int[] startCells(Lexicon lexicon, TileIndex tileIndex) {
+int[] starts = new int[0];
+for (int i = 0; i < tileIndex.size(); i++) {
+String tile = tileIndex.tile(i);
+if (lexicon.walk(Lexicon.ROOT, tile, 0, tile.length()) != Lexicon.NONE) {
+int[] cells = tileIndex.cells(i);
+int count = starts.length;
+starts = Arrays.copyOf(starts, count + cells.length);
+System.arraycopy(cells, 0, starts, count, cells.length);
+}
+}
+Arrays.sort(starts);
+return starts;
+}
+
+/**
+* Solves the board in the calling thread, or in pool when it is not null.
+*
+* @return the words with at least minimumWordLength characters.
+*/
+SortedSet<String> solve(int minimumWordLength, ForkJoinPool pool) {
+if (pool == null) {
+SortedSet<String> found = new TreeSet<>();
+collect(0, startCells.length, minimumWordLength, found);
+return found;
+}
+return pool.invoke(new SolveTask(0, startCells.length, minimumWordLength));
+}
+
+/**
+* Adds to found every word on a path that starts in startCells[from, to).
+*/
+void collect(int from, int to, int minimumWordLength, SortedSet<String> found) {
+Cursor cursor = cursor(from, to, minimumWordLength);
+while (cursor.hasNext()) {
+found.add(cursor.next());
+}
+tally(cursor);
+}
+
+private synchronized void tally(Cursor cursor) {
+nodesExpanded += cursor.expanded;
+prefixesPruned += cursor.pruned;
+}
+
+/**
+* @return the number of tiles added to a path by the solves so far.
+*/
+synchronized long nodesExpanded() {
+return nodesExpanded;
+}
+
+/**
+* @return the number of tiles the solves so far rejected because no word
+* continues with them.
+*/
+synchronized long prefixesPruned() {
+return prefixesPruned;
+}
+
+/**
+* Returns the words on the board, each word once, in the order the search
+* reaches them. The search only runs as far as the caller iterates, so
+* abandoning the iterator abandons the search.
+*/
+Iterator<String> words(int minimumWordLength) {
+return cursor(0, startCells.length, minimumWordLength);
+}
+
+/**
+* Returns the trie nodes of all the words on the board, whatever their
+* length, without spelling any of them out.
+*/
+BitSet wordNodes() {
+Cursor cursor = cursor(0, startCells.length, 1);
+while (cursor.advance()) {
+continue;
+}
+return cursor.returned;
+}
+
+/**
+* Starts a search of startCells[from, to), on a bitboard when the board
+* has one.
+*/
+private Cursor cursor(int from, int to, int minimumWordLength) {
+if (neighborMasks != null) {
+return new BitboardCursor(from, to, minimumWordLength);
+}
+return new WordCursor(from, to, minimumWordLength);
+}
+
+/**
+* An iterative depth-first search from each start cell in turn. The
+* current path is kept in pathCells, with the trie node reached by each
+* prefix in pathNodes; subclasses track which cells are used and which
+* neighbor of each path cell to try next. Abandoning a path as soon as it
+* is no longer a prefix of some word in the lexicon keeps the search
+* bounded by the number of reachable prefixes. The trie nodes of the words
+* already returned are remembered so that a word on several paths is
+* returned once.
+*/
+private abstract class Cursor implements Iterator<String> {
+private final int to;
+private final int minimumWordLength;
+final int[] pathCells = new int[tiles.length];
+private final int[] pathNodes = new int[tiles.length];
+private final BitSet returned = new BitSet();
+private final StringBuilder wordSoFar = new StringBuilder();
+private int nextStart;
+private int depth;
+private boolean advanced;
+private boolean found;
+private long expanded;
+private long pruned;
+
+Cursor(int from, int to, int minimumWordLength) {
+this.to = to;
+this.minimumWordLength = minimumWordLength;
+nextStart = from;
+}
+
+/**
+* @return the next unused neighbor of the cell at the given depth of the
+* path, or -1 if there are no more.
+*/
+abstract int nextNeighbor(int depth);
+
+/**
+* Marks cell used as the path reaches the given depth.
+*/
+abstract void enter(int cell, int depth);
+
+/**
+* Marks cell unused as the path leaves it.
+*/
+abstract void leave(int cell);
+
+@Override
+public boolean hasNext() {
+if (!advanced) {
+found = advance();
+advanced = true;
+}
+return found;
+}
+
+@Override
+public String next() {
+if (!hasNext()) {
+throw new NoSuchElementException();
+}
+advanced = false;
+return wordSoFar.toString();
+}
+
+/**
+* Runs the search until it reaches a word it has not returned yet, which
+* is then spelled by wordSoFar.
+*
+* @return false if the search is finished.
+*/
+boolean advance() {
+while (true) {
+if (depth == 0) {
+if (nextStart >= to) {
+return false;
+}
+if (push(startCells[nextStart++], Lexicon.ROOT) && isNewWord()) {
+return true;
+}
+continue;
+}
+int top = depth - 1;
+int cell = nextNeighbor(top);
+if (cell >= 0) {
+if (push(cell, pathNodes[top]) && isNewWord()) {
+return true;
+}
+} else {
+pop();
+}
+}
+}
+
+/**
+* Extends the path with the tile at cell, unless the tile is empty or that
+* leaves no word in the lexicon with the resulting prefix. An empty tile is
+* never part of a path, as in isOnBoard.
+*/
+private boolean push(int cell, int node) {
+String tile = tiles[cell];
+node = tile.isEmpty() ? Lexicon.NONE : lexicon.walk(node, tile, 0, tile.length());
+if (node == Lexicon.NONE) {
+pruned++;
+return false;
+}
+expanded++;
+enter(cell, depth);
+pathCells[depth] = cell;
+pathNodes[depth] = node;
+depth++;
+for (int i = 0; i < tile.length(); i++) {
+wordSoFar.append(Character.toUpperCase(tile.charAt(i)));
+}
+return true;
+}
+
+private void pop() {
+depth--;
+int cell = pathCells[depth];
+leave(cell);
+wordSoFar.setLength(wordSoFar.length() - tiles[cell].length());
+}
+
+private boolean isNewWord() {
+int node = pathNodes[depth - 1];
+if (!lexicon.isWord(node) || wordSoFar.length() < minimumWordLength || returned.get(node)) {
+return false;
+}
+returned.set(node);
+return true;
+}
+}
+
+/**
+* Searches any board, walking the neighbor table and marking used cells in
+* a boolean array.
+*/
+private class WordCursor extends Cursor {
+private final boolean[] used = new boolean[tiles.length];
+private final int[] pathBranches = new int[tiles.length];
+
+WordCursor(int from, int to, int minimumWordLength) {
+super(from, to, minimumWordLength);
+}
+
+@Override
+int nextNeighbor(int depth) {
+int[] adjacent = neighbors[pathCells[depth]];
+while (pathBranches[depth] < adjacent.length) {
+int cell = adjacent[pathBranches[depth]++];
+if (!used[cell]) {
+return cell;
+}
+}
+return -1;
+}
+
+@Override
+void enter(int cell, int depth) {
+used[cell] = true;
+pathBranches[depth] = 0;
+}
+
+@Override
+void leave(int cell) {
+used[cell] = false;
+}
+}
+
+/**
+* Searches a board of at most 64 cells. The used cells are the bits of one
+* long, and the neighbors still to try from each path cell are what is left
+* of its adjacency mask, taken lowest bit first.
+*/
+private class BitboardCursor extends Cursor {
+private final long[] pathCandidates = new long[tiles.length];
+private long used;
+
+BitboardCursor(int from, int to, int minimumWordLength) {
+super(from, to, minimumWordLength);
+}
+
+@Override
+int nextNeighbor(int depth) {
+long candidates = pathCandidates[depth] & ~used;
+if (candidates == 0) {
+return -1;
+}
+pathCandidates[depth] = candidates & (candidates - 1);
+return Long.numberOfTrailingZeros(candidates);
+}
+
+@Override
+void enter(int cell, int depth) {
+used |= 1L << cell;
+pathCandidates[depth] = neighborMasks[cell];
+}
+
+@Override
+void leave(int cell) {
+used &= ~(1L << cell);
+}
+}
+
+/**
+* Splits a range of start cells in half until it is small enough to solve
+* directly, then merges the words found by both halves.
+*/
+@SuppressWarnings("serial")
+private class SolveTask extends RecursiveTask<SortedSet<String>> {
+private final int from;
+private final int to;
+private final int minimumWordLength;
+
+SolveTask(int from, int to, int minimumWordLength) {
+this.from = from;
+this.to = to;
+this.minimumWordLength = minimumWordLength;
+}
+
+@Override
+protected SortedSet<String> compute() {
+if (to - from <= SPLIT_THRESHOLD) {
+SortedSet<String> found = new TreeSet<>();
+collect(from, to, minimumWordLength, found);
+return found;
+}
+int middle = (from + to) >>> 1;
+SolveTask left = new SolveTask(from, middle, minimumWordLength);
+left.fork();
+SortedSet<String> found = new SolveTask(middle, to, minimumWordLength).compute();
+SortedSet<String> leftFound = left.join();
+if (leftFound.size() > found.size()) {
+leftFound.addAll(found);
+return leftFound;
+}
+found.addAll(leftFound);
+return found;
+}
+}
+}
@@ -0,0 +1,255 @@
+import java.util.Arrays;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+* Keeps the words on a board up to date while its tiles change one at a
+* time. For every word on the board the solver counts the paths that spell
+* it. Changing a tile takes away the paths through that cell on the old
+* board and adds the paths through it on the new one, and a word is gone
+* once its count falls to zero. A path that has not reached the changed
+* cell yet is abandoned as soon as the cell is further away than the longest
+* word its prefix allows, so only the neighborhood of the cell is searched.
+*
+*/
+class IncrementalSolver {
+private final Lexicon lexicon;
+private final String[] tiles;
+private final int[][] neighbors;
+private final int size;
+private final boolean[] used;
+
+// The words on the board: an open-addressing table from the trie node that
+// ends a word to the number of paths spelling it. The words themselves are
+// looked up by node when they are asked for. Words whose count falls to
+// zero keep their slot until the table is rebuilt.
+private int[] nodes = new int[256];
+private long[] pathCounts = new long[256];
+private int slotsUsed;
+private int[] wordsOfLength = new int[16];
+
+// The cell being changed and its tiles before and after.
+private int changed;
+private String oldTile;
+private String newTile;
+private int delta;
+
+/**
+* Solves the board once, counting every path.
+*
+* @param lexicon The lexicon to look words up in.
+* @param tiles The board contents in row-major order, which are copied.
+* @param neighbors The neighbor table of the board.
+*/
+IncrementalSolver(Lexicon lexicon, String[] tiles, int[][] neighbors) {
+this.lexicon = lexicon;
+this.tiles = tiles.clone();
+this.neighbors = neighbors;
+size = (int) Math.sqrt(tiles.length);
+used = new boolean[tiles.length];
+Arrays.fill(nodes, Lexicon.NONE);
+changed = -1;
+delta = 1;
+for (int cell = 0; cell < tiles.length; cell++) {
+search(cell, Lexicon.ROOT, true);
+}
+}
+
+/**
+* Replaces the tile at cell, recounting only the paths through it. The part
+* of a path before the changed cell is the same on the old board and the
+* new one, so it is searched once, and the search forks where the path
+* steps onto the cell: once with the old tile, taking its words away, and
+* once with the new tile, adding its words.
+*/
+void setTile(int cell, String tile) {
+String old = tiles[cell];
+if (tile.equals(old)) {
+return;
+}
+changed = cell;
+oldTile = old;
+newTile = tile;
+for (int start = 0; start < tiles.length; start++) {
+if (start == cell) {
+searchChanged(Lexicon.ROOT);
+} else {
+search(start, Lexicon.ROOT, false);
+}
+}
+tiles[cell] = tile;
+}
+
+private void searchChanged(int node) {
+tiles[changed] = oldTile;
+delta = -1;
+search(changed, node, true);
+tiles[changed] = newTile;
+delta = 1;
+search(changed, node, true);
+}
+
+/**
+* Extends a path with the tile at cell and counts, with the current delta,
+* every word spelled by a path through the changed cell from there on.
+*
+* @param through Whether cell is the changed cell or comes after it.
+*/
+private void search(int cell, int node, boolean through) {
+String tile = tiles[cell];
+if (tile.isEmpty()) {
+return;
+}
+node = lexicon.walk(node, tile, 0, tile.length());
+if (node == Lexicon.NONE) {
+return;
+}
+// An empty tile is never part of a path, so every tile between here and
+// the changed cell adds at least one character.
+if (!through && distance(cell, changed) > lexicon.height(node)) {
+return;
+}
+used[cell] = true;
+if (through && lexicon.isWord(node)) {
+count(node);
+}
+for (int next : neighbors[cell]) {
+if (used[next]) {
+continue;
+}
+if (!through && next == changed) {
+searchChanged(node);
+} else {
+search(next, node, through);
+}
+}
+used[cell] = false;
+}
+
+/**
+* @return the number of king moves between two cells.
+*/
+private int distance(int from, int to) {
+return Math.max(Math.abs((from / size) - (to / size)), Math.abs((from % size) - (to % size)));
+}
+
+/**
+* Adds delta to the path count of the word that ends at node.
+*/
+private void count(int node) {
+int slot = slot(node);
+if (nodes[slot] == Lexicon.NONE) {
+nodes[slot] = node;
+slotsUsed++;
+}
+long before = pathCounts[slot];
+pathCounts[slot] += delta;
+int length = lexicon.wordLength(lexicon.wordId(node));
+if (before == 0) {
+if (length >= wordsOfLength.length) {
+wordsOfLength = Arrays.copyOf(wordsOfLength, length + 1);
+}
+wordsOfLength[length]++;
+} else if (pathCounts[slot] == 0) {
+wordsOfLength[length]--;
+}
+if (slotsUsed * 2 > nodes.length) {
+rehash();
+}
+}
+
+private int slot(int node) {
+int mask = nodes.length - 1;
+int hash = node * 0x9E3779B9;
+int slot = (hash ^ (hash >>> 16)) & mask;
+while (nodes[slot] != Lexicon.NONE && nodes[slot] != node) {
+slot = (slot + 1) & mask;
+}
+return slot;
+}
+
+/**
+* Rebuilds the word table without the words that are no longer on the
+* board, growing it if they are most of it.
+*/
+private void rehash() {
+int[] oldNodes = nodes;
+long[] oldCounts = pathCounts;
+int live = 0;
+for (long paths : oldCounts) {
+if (paths > 0) {
+live++;
+}
+}
+int capacity = oldNodes.length;
+while (live * 4 > capacity) {
+capacity *= 2;
+}
+nodes = new int[capacity];
+pathCounts = new long[capacity];
+Arrays.fill(nodes, Lexicon.NONE);
+slotsUsed = live;
+for (int i = 0; i < oldNodes.length; i++) {
+if (oldCounts[i] > 0) {
+int slot = slot(oldNodes[i]);
+nodes[slot] = oldNodes[i];
+pathCounts[slot] = oldCounts[i];
+}
+}
+}
+
+/**
+* @return the tile at cell.
+*/
+String tile(int cell) {
+return tiles[cell];
+}
+
+/**
+* @return a copy of the board contents in row-major order.
+*/
+String[] tiles() {
+return tiles.clone();
+}
+
+/**
+* @return the number of words on the board with at least
+* minimumWordLength characters.
+*/
+int wordCount(int minimumWordLength) {
+int total = 0;
+for (int length = minimumWordLength; length < wordsOfLength.length; length++) {
+total += wordsOfLength[length];
+}
+return total;
+}
+
+/**
+* @return the cumulative score of every word on the board with at least
+* minimumWordLength characters.
+*/
+int score(int minimumWordLength) {
+int total = 0;
+for (int length = minimumWordLength; length < wordsOfLength.length; length++) {
+total += wordsOfLength[length] * (1 + (length - minimumWordLength));
+}
+return total;
+}
+
+/**
+* @return the words on the board with at least minimumWordLength
+* characters.
+*/
+SortedSet<String> words(int minimumWordLength) {
+SortedSet<String> found = new TreeSet<>();
+for (int i = 0; i < nodes.length; i++) {
+if (pathCounts[i] > 0) {
+int id = lexicon.wordId(nodes[i]);
+if (lexicon.wordLength(id) >= minimumWordLength) {
+found.add(lexicon.word(id));
+}
+}
+}
+return found;
+}
+}
@@ -0,0 +1,109 @@
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.SortedSet;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+* IncrementalSolverTest.java
+* Checks that the words WordSearchEngine.setTile keeps up to date are the
+* words a fresh solve of the same board finds.
+*/
+public class IncrementalSolverTest {
+// The empty tile and the multi-character ones are the tiles the
+// incremental search treats specially.
+private static final String[] TILES = {"", "A", "E", "I", "O", "S", "T", "R", "N", "L", "C", "QU", "ER", "TH"};
+
+private static Lexicon lexicon;
+
+/** Builds a lexicon of random words spelled by the tiles. */
+@BeforeClass
+public static void buildLexicon() throws IOException {
+Random random = new Random(1);
+File file = File.createTempFile("lexicon", ".txt");
+file.deleteOnExit();
+try (PrintWriter out = new PrintWriter(file)) {
+for (int i = 0; i < 3000; i++) {
+StringBuilder word = new StringBuilder();
+int tiles = 1 + random.nextInt(5);
+for (int t = 0; t < tiles; t++) {
+word.append(TILES[1 + random.nextInt(TILES.length - 1)]);
+}
+out.println(word);
+}
+}
+lexicon = Lexicon.load(file.getPath());
+}
+
+/** Test case for setTile on random boards and random edits. */
+@Test
+public void testSetTileMatchesFreshSolve() {
+Random random = new Random(2);
+for (int trial = 0; trial < 60; trial++) {
+int n = 1 + random.nextInt(6);
+String[] board = randomBoard(random, n * n);
+WordSearchEngine game = new WordSearchEngine(lexicon);
+game.setSolveCache(null);
+game.setBoard(board);
+for (int edit = 0; edit < 8; edit++) {
+int cell = random.nextInt(board.length);
+board[cell] = TILES[random.nextInt(TILES.length)];
+game.setTile(cell, board[cell]);
+int minimumWordLength = 1 + random.nextInt(4);
+assertEquals(Arrays.toString(board), freshSolve(board, minimumWordLength),
+game.getAllScorableWords(minimumWordLength));
+}
+}
+}
+
+/** Test case for setTile before the words of the board were ever asked for. */
+@Test
+public void testSetTileBeforeFirstSolve() {
+Random random = new Random(3);
+String[] board = randomBoard(random, 16);
+WordSearchEngine game = new WordSearchEngine(lexicon);
+game.setSolveCache(null);
+game.setBoard(board);
+board[5] = "QU";
+game.setTile(5, "QU");
+board[6] = "";
+game.setTile(6, "");
+assertEquals(freshSolve(board, 3), game.getAllScorableWords(3));
+}
+
+/** Test case for setting a tile back to what it was. */
+@Test
+public void testSetTileAndBack() {
+Random random = new Random(4);
+String[] board = randomBoard(random, 25);
+WordSearchEngine game = new WordSearchEngine(lexicon);
+game.setSolveCache(null);
+game.setBoard(board);
+SortedSet<String> expected = game.getAllScorableWords(2);
+String old = board[12];
+game.setTile(12, "TH");
+game.setTile(12, old);
+assertEquals(expected, game.getAllScorableWords(2));
+}
+
+private static String[] randomBoard(Random random, int cells) {
+String[] board = new String[cells];
+for (int i = 0; i < cells; i++) {
+board[i] = TILES[random.nextInt(TILES.length)];
+}
+return board;
+}
+
+private static SortedSet<String> freshSolve(String[] board, int minimumWordLength) {
+WordSearchEngine game = new WordSearchEngine(lexicon);
+game.setSolveCache(null);
+game.setBoard(board.clone());
+return game.getAllScorableWords(minimumWordLength);
+}
+}
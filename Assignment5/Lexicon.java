@@ -0,0 +1,444 @@
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.IntBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+* Stores a lexicon as an array-based trie. Every node is an index into a
+* table of ints, and the children of a node are kept in a sibling chain in
+* ascending order. The table is an array on the heap or, for a precompiled
+* lexicon file, the mapped file itself. Words are stored in upper case and
+* all lookups fold case one character at a time, so checking a word or a
+* prefix takes time proportional to its length and allocates nothing. A
+* Lexicon cannot be changed once it is built, so one instance can be shared
+* by any number of games and threads.
+*
+*/
+public class Lexicon implements Iterable<String> {
+/** Index of the root node. */
+public static final int ROOT = 0;
+/** Returned by the walking methods when there is no such node. */
+public static final int NONE = -1;
+
+private static final ConcurrentHashMap<String, SharedFile> SHARED = new ConcurrentHashMap<>();
+
+private final IntBuffer nodes;
+private final int nodeCount;
+private final int wordCount;
+private volatile byte[] heights;
+private volatile WordStore words;
+private volatile int[] wordIds;
+
+private Lexicon(Builder builder) {
+nodeCount = builder.nodeCount;
+int[] packed = new int[nodeCount * LexiconFile.NODE_INTS];
+for (int node = 0; node < nodeCount; node++) {
+int i = node * LexiconFile.NODE_INTS;
+packed[i] = builder.labels[node] | (builder.terminal[node] ? LexiconFile.TERMINAL : 0);
+packed[i + 1] = builder.firstChild[node];
+packed[i + 2] = builder.nextSibling[node];
+}
+nodes = IntBuffer.wrap(packed);
+wordCount = builder.wordCount;
+}
+
+private Lexicon(LexiconFile file) {
+nodes = file.nodes;
+nodeCount = file.nodeCount;
+wordCount = file.wordCount;
+}
+
+/**
+* Reads a lexicon from a file. A file written by save is mapped into memory
+* and used in place. Any other file is read as text, and the first string
+* on each line is a word.
+*
+* @param fileName A string containing the name of the file to be opened.
+* @return the lexicon stored in the file
+* @throws IOException if fileName cannot be opened or read.
+*/
+public static Lexicon load(String fileName) throws IOException {
+Path path = Paths.get(fileName);
+if (LexiconFile.isLexiconFile(path)) {
+return new Lexicon(LexiconFile.map(path));
+}
+Builder builder = new Builder();
+try (BufferedReader input = new BufferedReader(new FileReader(new File(fileName)))) {
+String line;
+while ((line = input.readLine()) != null) {
+int end = line.indexOf(' ');
+if (end < 0) {
+end = line.length();
+}
+if (end > 0) {
+builder.add(line, end);
+}
+}
+}
+return new Lexicon(builder);
+}
+
+/**
+* Returns the lexicon stored in a file, reading the file only the first
+* time it is asked for. A lexicon never changes once it is built, so the
+* same instance is handed to every caller and may be used from any number
+* of threads. The file is read again if it has been modified since, and
+* the lexicon read before is then forgotten, along with its boards in the
+* shared solve cache.
+*
+* @param fileName A string containing the name of the file to be opened.
+* @return the lexicon stored in the file
+* @throws IOException if fileName cannot be opened or read.
+*/
+public static Lexicon shared(String fileName) throws IOException {
+File file = new File(fileName);
+long modified = file.lastModified();
+long length = file.length();
+Lexicon[] replaced = new Lexicon[1];
+SharedFile shared;
+try {
+shared = SHARED.compute(file.getCanonicalPath(), (path, old) -> {
+if (old != null && old.modified == modified && old.length == length) {
+return old;
+}
+try {
+replaced[0] = old == null ? null : old.lexicon;
+return new SharedFile(load(fileName), modified, length);
+} catch (IOException e) {
+throw new UncheckedIOException(e);
+}
+});
+} catch (UncheckedIOException e) {
+throw e.getCause();
+}
+if (replaced[0] != null) {
+SolveCache.shared().forget(replaced[0]);
+}
+return shared.lexicon;
+}
+
+/**
+* A lexicon read by shared, with the modification time and length its file
+* had when it was read.
+*/
+private static final class SharedFile {
+private final Lexicon lexicon;
+private final long modified;
+private final long length;
+
+SharedFile(Lexicon lexicon, long modified, long length) {
+this.lexicon = lexicon;
+this.modified = modified;
+this.length = length;
+}
+}
+
+/**
+* Accumulates words into growable trie arrays until the Lexicon is built.
+*/
+private static class Builder {
+private char[] labels = new char[1024];
+private int[] firstChild = new int[1024];
+private int[] nextSibling = new int[1024];
+private boolean[] terminal = new boolean[1024];
+private int nodeCount = 1;
+private int wordCount;
+
+Builder() {
+firstChild[ROOT] = NONE;
+nextSibling[ROOT] = NONE;
+}
+
+void add(String word, int length) {
+int node = ROOT;
+for (int i = 0; i < length; i++) {
+node = addChild(node, Character.toUpperCase(word.charAt(i)));
+}
+if (!terminal[node]) {
+terminal[node] = true;
+wordCount++;
+}
+}
+
+private int addChild(int parent, char c) {
+int previous = NONE;
+int child = firstChild[parent];
+while (child != NONE && labels[child] < c) {
+previous = child;
+child = nextSibling[child];
+}
+if (child != NONE && labels[child] == c) {
+return child;
+}
+if (nodeCount == labels.length) {
+int capacity = nodeCount * 2;
+labels = Arrays.copyOf(labels, capacity);
+firstChild = Arrays.copyOf(firstChild, capacity);
+nextSibling = Arrays.copyOf(nextSibling, capacity);
+terminal = Arrays.copyOf(terminal, capacity);
+}
+int node = nodeCount++;
+labels[node] = c;
+firstChild[node] = NONE;
+nextSibling[node] = child;
+if (previous == NONE) {
+firstChild[parent] = node;
+} else {
+nextSibling[previous] = node;
+}
+return node;
+}
+}
+
+/**
+* Writes the lexicon to a file in the precompiled format, which load maps
+* into memory instead of parsing.
+*
+* @param fileName A string containing the name of the file to be written.
+* @throws IOException if the file cannot be written.
+*/
+public void save(String fileName) throws IOException {
+LexiconFile.write(Paths.get(fileName), nodes, nodeCount, this, wordCount);
+}
+
+/**
+* Precompiles a text word list: java Lexicon words.txt words.lex
+*/
+public static void main(String[] args) throws IOException {
+if (args.length != 2) {
+System.err.println("usage: java Lexicon <word list> <lexicon file>");
+System.exit(1);
+}
+load(args[0]).save(args[1]);
+}
+
+/**
+* @return the number of words in the lexicon.
+*/
+public int size() {
+return wordCount;
+}
+
+/**
+* Returns the child of node reached by the given character, ignoring case.
+*
+* @param node The node to step from.
+* @param c The character to step over.
+* @return the child node, or NONE if no word continues with c.
+*/
+public int child(int node, char c) {
+c = Character.toUpperCase(c);
+int child = firstChild(node);
+while (child != NONE && label(child) < c) {
+child = nextSibling(child);
+}
+if (child != NONE && label(child) == c) {
+return child;
+}
+return NONE;
+}
+
+private char label(int node) {
+return (char) nodes.get(node * LexiconFile.NODE_INTS);
+}
+
+private int firstChild(int node) {
+return nodes.get((node * LexiconFile.NODE_INTS) + 1);
+}
+
+private int nextSibling(int node) {
+return nodes.get((node * LexiconFile.NODE_INTS) + 2);
+}
+
+/**
+* Returns how many more characters the longest word through node has
+* beyond the ones that reach node. Searches that must still reach some
+* cell use this to give up on a prefix early. The heights of all nodes are
+* worked out on the first call.
+*
+* @return the height of node, or Byte.MAX_VALUE if it is greater.
+*/
+int height(int node) {
+byte[] h = heights;
+if (h == null) {
+h = new byte[nodeCount];
+// Every node is added after its parent, so children have higher indexes.
+for (int i = nodeCount - 1; i >= 0; i--) {
+int height = 0;
+for (int child = firstChild(i); child != NONE; child = nextSibling(child)) {
+height = Math.max(height, Math.min(h[child] + 1, Byte.MAX_VALUE));
+}
+h[i] = (byte) height;
+}
+heights = h;
+}
+return h[node];
+}
+
+/**
+* Returns the id of the word that ends at node. Ids number the words in a
+* WordStore, which holds them all packed into one array, so a search
+* can keep the words it finds as ints and turn them into Strings only when
+* it hands them out. The store is built on the first call.
+*
+* @return the id of the word, or NONE if node does not end a word.
+*/
+int wordId(int node) {
+return wordIds()[node];
+}
+
+/**
+* @return the word with the given id.
+*/
+String word(int id) {
+wordIds();
+return words.word(id);
+}
+
+/**
+* @return the number of characters of the word with the given id.
+*/
+int wordLength(int id) {
+wordIds();
+return words.length(id);
+}
+
+private int[] wordIds() {
+int[] ids = wordIds;
+if (ids == null) {
+List<String> all = new ArrayList<>(wordCount);
+for (String word : this) {
+all.add(word);
+}
+WordStore store = new WordStore(all);
+ids = new int[nodeCount];
+Arrays.fill(ids, NONE);
+for (String word : all) {
+ids[walk(ROOT, word, 0, word.length())] = store.id(word);
+}
+// Publish the store first, so that whoever sees the ids sees it too.
+words = store;
+wordIds = ids;
+}
+return ids;
+}
+
+/**
+* Steps from node over the characters of s in [from, to).
+*
+* @return the node reached, or NONE if no word continues that way.
+*/
+public int walk(int node, CharSequence s, int from, int to) {
+for (int i = from; i < to && node != NONE; i++) {
+node = child(node, s.charAt(i));
+}
+return node;
+}
+
+/**
+* @return true if the path from the root to node spells a word.
+*/
+public boolean isWord(int node) {
+return (nodes.get(node * LexiconFile.NODE_INTS) & LexiconFile.TERMINAL) != 0;
+}
+
+/**
+* @return true if word is in the lexicon, ignoring case.
+*/
+public boolean contains(CharSequence word) {
+int node = walk(ROOT, word, 0, word.length());
+return node != NONE && isWord(node);
+}
+
+/**
+* @return true if at least one word in the lexicon starts with prefix,
+* ignoring case.
+*/
+public boolean containsPrefix(CharSequence prefix) {
+int node = walk(ROOT, prefix, 0, prefix.length());
+return node != NONE && (node != ROOT || wordCount > 0);
+}
+
+/**
+* Iterates over the words in ascending order.
+*/
+@Override
+public Iterator<String> iterator() {
+return new Iterator<String>() {
+private final StringBuilder word = new StringBuilder();
+private int[] path = new int[16];
+private int depth = 0;
+private int next = advance();
+
+private int advance() {
+do {
+int top = depth == 0 ? ROOT : path[depth - 1];
+if (firstChild(top) != NONE) {
+push(firstChild(top));
+} else {
+while (depth > 0 && nextSibling(path[depth - 1]) == NONE) {
+pop();
+}
+if (depth == 0) {
+return NONE;
+}
+int sibling = nextSibling(path[depth - 1]);
+pop();
+push(sibling);
+}
+} while (!isWord(path[depth - 1]));
+return path[depth - 1];
+}
+
+private void push(int node) {
+if (depth == path.length) {
+path = Arrays.copyOf(path, depth * 2);
+}
+path[depth++] = node;
+word.append(label(node));
+}
+
+private void pop() {
+depth--;
+word.setLength(depth);
+}
+
+@Override
+public boolean hasNext() {
+return next != NONE;
+}
+
+@Override
+public String next() {
+if (next == NONE) {
+throw new NoSuchElementException();
+}
+String s = word.toString();
+next = advance();
+return s;
+}
+};
+}
+
+@Override
+public String toString() {
+StringBuilder sb = new StringBuilder("[");
+for (String s : this) {
+if (sb.length() > 1) {
+sb.append(", ");
+}
+sb.append(s);
+}
+return sb.append("]").toString();
+}
+}
@@ -0,0 +1,148 @@
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+* Reads and writes the precompiled lexicon format shared by the word games.
+* A lexicon file is opened with FileChannel.map and queried in place, so
+* opening one costs a system call rather than a parse of every word.
+*
+* The file is big-endian and laid out as follows.
+*
+*     int     magic number, "LEX1"
+*     int     number of words, W
+*     int     number of trie nodes, N
+*     int[3N] trie nodes: (terminal flag | label), first child, next sibling
+*     int[W+1] offset of each word in the word bytes, plus the end offset
+*     byte[]  the words in ascending order, upper case, one byte per character
+*
+* The trie is the one built by Lexicon; the words section is a sorted string
+* table for readers, like Doublets, that only need the words themselves.
+*
+*/
+final class LexiconFile {
+/** The first four bytes of every lexicon file. */
+static final int MAGIC = 0x4C455831;
+/** Number of ints in one trie node. */
+static final int NODE_INTS = 3;
+/** Set in the first int of a node that ends a word. */
+static final int TERMINAL = 1 << 16;
+
+private static final int HEADER_BYTES = 12;
+
+final int wordCount;
+final int nodeCount;
+final IntBuffer nodes;
+private final IntBuffer wordOffsets;
+private final ByteBuffer wordBytes;
+
+private LexiconFile(ByteBuffer buffer) throws IOException {
+if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+throw new IOException("not a lexicon file");
+}
+wordCount = buffer.getInt(4);
+nodeCount = buffer.getInt(8);
+int offsetsStart = HEADER_BYTES + (nodeCount * NODE_INTS * 4);
+int bytesStart = offsetsStart + ((wordCount + 1) * 4);
+if (wordCount < 0 || nodeCount < 1 || bytesStart > buffer.limit()) {
+throw new IOException("truncated lexicon file");
+}
+nodes = slice(buffer, HEADER_BYTES, offsetsStart).asIntBuffer();
+wordOffsets = slice(buffer, offsetsStart, bytesStart).asIntBuffer();
+wordBytes = slice(buffer, bytesStart, buffer.limit());
+}
+
+private static ByteBuffer slice(ByteBuffer buffer, int from, int to) {
+ByteBuffer view = buffer.duplicate();
+view.position(from);
+view.limit(to);
+return view.slice();
+}
+
+/**
+* @return true if the file starts with the lexicon file magic number.
+*/
+static boolean isLexiconFile(Path path) throws IOException {
+try (DataInputStream in = new DataInputStream(Files.newInputStream(path))) {
+return in.readInt() == MAGIC;
+} catch (EOFException e) {
+return false;
+}
+}
+
+/**
+* Maps a lexicon file into memory. The mapping stays valid after this
+* method returns, for as long as the returned object is reachable.
+*
+* @throws IOException if the file cannot be read or is not a lexicon file.
+*/
+static LexiconFile map(Path path) throws IOException {
+try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+return new LexiconFile(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+}
+}
+
+/**
+* @return the word with the given index in ascending order.
+*/
+String word(int index) {
+int from = wordOffsets.get(index);
+byte[] bytes = new byte[wordOffsets.get(index + 1) - from];
+ByteBuffer view = wordBytes.duplicate();
+view.position(from);
+view.get(bytes);
+return new String(bytes, StandardCharsets.ISO_8859_1);
+}
+
+/**
+* Writes a lexicon file.
+*
+* @param path The file to write.
+* @param nodes The trie, NODE_INTS ints per node.
+* @param nodeCount The number of nodes in the trie.
+* @param words The words of the trie in ascending order.
+* @param wordCount The number of words.
+* @throws IOException if the file cannot be written or a word has a
+* character that does not fit in one byte.
+*/
+static void write(Path path, IntBuffer nodes, int nodeCount, Iterable<String> words, int wordCount)
+throws IOException {
+// Check every word first, so that a bad one leaves no partial file behind.
+for (String word : words) {
+for (int i = 0; i < word.length(); i++) {
+if (word.charAt(i) > 0xFF) {
+throw new IOException("cannot store " + word + " in a lexicon file");
+}
+}
+}
+try (DataOutputStream out = new DataOutputStream(
+new BufferedOutputStream(Files.newOutputStream(path)))) {
+out.writeInt(MAGIC);
+out.writeInt(wordCount);
+out.writeInt(nodeCount);
+for (int i = 0; i < nodeCount * NODE_INTS; i++) {
+out.writeInt(nodes.get(i));
+}
+int offset = 0;
+out.writeInt(offset);
+for (String word : words) {
+offset += word.length();
+out.writeInt(offset);
+}
+for (String word : words) {
+for (int i = 0; i < word.length(); i++) {
+out.writeByte(word.charAt(i));
+}
+}
+}
+}
+}
@@ -0,0 +1,74 @@
+import java.util.Collections;
+import java.util.Map;
+
+/**
+* The result of scoring a batch of submitted words against one board: a
+* verdict for every word and the cumulative score of the scorable ones.
+*
+*/
+public class ScoreReport {
+/**
+* What happened to one submitted word. Verdicts are checked in the order
+* they are declared, so a short word that is not in the lexicon is
+* TOO_SHORT.
+*/
+public enum Verdict {
+/** The word has fewer characters than the minimum. */
+TOO_SHORT,
+/** The word is not in the lexicon. */
+NOT_IN_LEXICON,
+/** The word is in the lexicon but cannot be traced on the board. */
+NOT_ON_BOARD,
+/** The word is scorable. */
+SCORED
+}
+
+private final Map<String, Verdict> verdicts;
+private final int minimumWordLength;
+private final int totalScore;
+
+ScoreReport(Map<String, Verdict> verdicts, int minimumWordLength, int totalScore) {
+this.verdicts = Collections.unmodifiableMap(verdicts);
+this.minimumWordLength = minimumWordLength;
+this.totalScore = totalScore;
+}
+
+/**
+* @return the verdict for every submitted word, in submission order.
+*/
+public Map<String, Verdict> getVerdicts() {
+return verdicts;
+}
+
+/**
+* @return the verdict for word, or null if it was not submitted.
+*/
+public Verdict getVerdict(String word) {
+return verdicts.get(word);
+}
+
+/**
+* @return the points awarded for word: one for the minimum number of
+* characters and one for each character beyond it, or zero if the word
+* was not scorable.
+*/
+public int getScore(String word) {
+if (verdicts.get(word) != Verdict.SCORED) {
+return 0;
+}
+return 1 + (word.length() - minimumWordLength);
+}
+
+/**
+* @return the cumulative score of the scorable words. A word submitted
+* more than once, in any mix of case, is counted once.
+*/
+public int getTotalScore() {
+return totalScore;
+}
+
+@Override
+public String toString() {
+return totalScore + " " + verdicts;
+}
+}
@@ -0,0 +1,43 @@
+/**
+* Receives the counters of the board searches run by a WordSearchEngine.
+* The searches count in plain local fields and report once per call, and
+* only to a sink that has been set, so a game without one pays nothing.
+* A sink shared by several games is called from their threads at once.
+*
+* Every node expanded or prefix pruned is one lookup in the lexicon: a tile
+* that continues the current prefix expands a node, and one that does not
+* is pruned.
+*
+*/
+public interface SearchMetrics {
+/**
+* Reports one call of getAllScorableWords.
+*
+* @param nanos The time the call took.
+* @param nodesExpanded The number of tiles added to a path.
+* @param prefixesPruned The number of tiles rejected because no word
+* continues with them.
+* @param cacheHit Whether the words came from a cache without a search.
+*/
+void solved(long nanos, long nodesExpanded, long prefixesPruned, boolean cacheHit);
+
+/**
+* Reports one call of getAllScorableWords answered from the word counts
+* that setTile keeps up to date. Such a call neither searches the board nor
+* looks in a cache, so it is reported here instead of to solved.
+*
+* @param nanos The time the call took.
+*/
+void solvedIncrementally(long nanos);
+
+/**
+* Reports one call of isOnBoard.
+*
+* @param nanos The time the call took.
+* @param nodesExpanded The number of tiles added to a path.
+* @param prefixesPruned The number of adjacent tiles rejected because they
+* do not continue the word.
+* @param found Whether the word is on the board.
+*/
+void pathSearched(long nanos, long nodesExpanded, long prefixesPruned, boolean found);
+}
@@ -0,0 +1,152 @@
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+* A SearchMetrics sink that adds up the counters of any number of games and
+* publishes them over JMX. The counters are LongAdders, so games reporting
+* from many threads do not contend on them.
+*
+*/
+public class SearchStats implements SearchMetrics, SearchStatsMBean {
+private final LongAdder solves = new LongAdder();
+private final LongAdder solveNanos = new LongAdder();
+private final LongAccumulator maxSolveNanos = new LongAccumulator(Math::max, 0);
+private final LongAdder pathSearches = new LongAdder();
+private final LongAdder pathSearchNanos = new LongAdder();
+private final LongAccumulator maxPathSearchNanos = new LongAccumulator(Math::max, 0);
+private final LongAdder nodesExpanded = new LongAdder();
+private final LongAdder prefixesPruned = new LongAdder();
+private final LongAdder lexiconLookups = new LongAdder();
+private final LongAdder cacheHits = new LongAdder();
+private final LongAdder incrementalSolves = new LongAdder();
+
+/**
+* Registers these statistics with the platform MBean server, under
+* WordSearch:type=SearchStats,name=name.
+*
+* @param name The name that tells these statistics apart from others.
+* @return the name they were registered under.
+* @throws JMException if the name is taken or cannot be registered.
+*/
+public ObjectName register(String name) throws JMException {
+ObjectName objectName = new ObjectName("WordSearch:type=SearchStats,name=" + ObjectName.quote(name));
+ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+return objectName;
+}
+
+@Override
+public void solved(long nanos, long nodesExpanded, long prefixesPruned, boolean cacheHit) {
+solves.increment();
+solveNanos.add(nanos);
+maxSolveNanos.accumulate(nanos);
+this.nodesExpanded.add(nodesExpanded);
+this.prefixesPruned.add(prefixesPruned);
+lexiconLookups.add(nodesExpanded + prefixesPruned);
+if (cacheHit) {
+cacheHits.increment();
+}
+}
+
+@Override
+public void solvedIncrementally(long nanos) {
+solves.increment();
+solveNanos.add(nanos);
+maxSolveNanos.accumulate(nanos);
+incrementalSolves.increment();
+}
+
+@Override
+public void pathSearched(long nanos, long nodesExpanded, long prefixesPruned, boolean found) {
+pathSearches.increment();
+pathSearchNanos.add(nanos);
+maxPathSearchNanos.accumulate(nanos);
+this.nodesExpanded.add(nodesExpanded);
+this.prefixesPruned.add(prefixesPruned);
+}
+
+@Override
+public long getSolveCount() {
+return solves.sum();
+}
+
+@Override
+public long getSolveTimeNanos() {
+return solveNanos.sum();
+}
+
+@Override
+public long getMaxSolveTimeNanos() {
+return maxSolveNanos.get();
+}
+
+@Override
+public long getPathSearchCount() {
+return pathSearches.sum();
+}
+
+@Override
+public long getPathSearchTimeNanos() {
+return pathSearchNanos.sum();
+}
+
+@Override
+public long getMaxPathSearchTimeNanos() {
+return maxPathSearchNanos.get();
+}
+
+@Override
+public long getNodesExpanded() {
+return nodesExpanded.sum();
+}
+
+@Override
+public long getPrefixesPruned() {
+return prefixesPruned.sum();
+}
+
+@Override
+public long getLexiconLookups() {
+return lexiconLookups.sum();
+}
+
+@Override
+public long getCacheHits() {
+return cacheHits.sum();
+}
+
+@Override
+public long getIncrementalSolves() {
+return incrementalSolves.sum();
+}
+
+@Override
+public long getCacheMisses() {
+return solves.sum() - cacheHits.sum() - incrementalSolves.sum();
+}
+
+@Override
+public void reset() {
+solves.reset();
+solveNanos.reset();
+maxSolveNanos.reset();
+pathSearches.reset();
+pathSearchNanos.reset();
+maxPathSearchNanos.reset();
+nodesExpanded.reset();
+prefixesPruned.reset();
+lexiconLookups.reset();
+cacheHits.reset();
+incrementalSolves.reset();
+}
+
+@Override
+public String toString() {
+return "solves=" + getSolveCount() + " solveNanos=" + getSolveTimeNanos()
++ " pathSearches=" + getPathSearchCount() + " pathSearchNanos=" + getPathSearchTimeNanos()
++ " nodesExpanded=" + getNodesExpanded() + " prefixesPruned=" + getPrefixesPruned()
++ " cacheHits=" + getCacheHits() + " incrementalSolves=" + getIncrementalSolves();
+}
+}
@@ -0,0 +1,47 @@
+/**
+* The management interface of SearchStats. All times are in nanoseconds.
+*
+*/
+public interface SearchStatsMBean {
+/** @return the number of getAllScorableWords calls, however they were answered. */
+long getSolveCount();
+
+/** @return the total time spent in getAllScorableWords. */
+long getSolveTimeNanos();
+
+/** @return the longest getAllScorableWords call. */
+long getMaxSolveTimeNanos();
+
+/** @return the number of isOnBoard calls. */
+long getPathSearchCount();
+
+/** @return the total time spent in isOnBoard. */
+long getPathSearchTimeNanos();
+
+/** @return the longest isOnBoard call. */
+long getMaxPathSearchTimeNanos();
+
+/** @return the number of tiles added to a path by either search. */
+long getNodesExpanded();
+
+/** @return the number of tiles rejected by either search. */
+long getPrefixesPruned();
+
+/** @return the number of lexicon lookups made by getAllScorableWords. */
+long getLexiconLookups();
+
+/** @return the number of getAllScorableWords calls answered by a cache. */
+long getCacheHits();
+
+/** @return the number of getAllScorableWords calls answered by the counts kept by setTile. */
+long getIncrementalSolves();
+
+/**
+* @return the number of getAllScorableWords calls that searched the board:
+* those answered neither by a cache nor by the counts kept by setTile.
+*/
+long getCacheMisses();
+
+/** Sets every counter back to zero. */
+void reset();
+}
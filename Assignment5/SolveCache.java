@@ -0,0 +1,156 @@
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+* A bounded cache of solved boards, evicting the least recently used board
+* once it is full. An entry is keyed by a fingerprint of the board contents
+* (ignoring case), the identity of the lexicon and the minimum word length,
+* so a board that is solved again costs a hash lookup. All methods are
+* thread-safe, and one cache may be shared by any number of games.
+*
+*/
+public class SolveCache {
+private static final SolveCache SHARED = new SolveCache(256);
+
+private final Map<Key, SortedSet<String>> entries;
+private final AtomicLong hits = new AtomicLong();
+private final AtomicLong misses = new AtomicLong();
+
+/**
+* @param capacity The greatest number of boards to remember.
+* @throws IllegalArgumentException if capacity < 1
+*/
+public SolveCache(int capacity) {
+if (capacity < 1) {
+throw new IllegalArgumentException();
+}
+entries = new LinkedHashMap<Key, SortedSet<String>>(16, 0.75f, true) {
+@Override
+protected boolean removeEldestEntry(Map.Entry<Key, SortedSet<String>> eldest) {
+return size() > capacity;
+}
+};
+}
+
+/**
+* @return the cache that games use unless they are given another one.
+*/
+public static SolveCache shared() {
+return SHARED;
+}
+
+/**
+* @return the words cached for the board, which must not be modified, or
+* null if the board has not been solved.
+*/
+SortedSet<String> get(Lexicon lexicon, String[] tiles, int minimumWordLength) {
+SortedSet<String> words;
+synchronized (entries) {
+words = entries.get(new Key(lexicon, tiles, minimumWordLength));
+}
+(words == null ? misses : hits).incrementAndGet();
+return words;
+}
+
+/**
+* Remembers the words found on a board.
+*/
+void put(Lexicon lexicon, String[] tiles, int minimumWordLength, SortedSet<String> words) {
+Key key = new Key(lexicon, tiles, minimumWordLength);
+synchronized (entries) {
+entries.put(key, Collections.unmodifiableSortedSet(words));
+}
+}
+
+/**
+* Forgets every board solved with the given lexicon.
+*/
+void forget(Lexicon lexicon) {
+synchronized (entries) {
+entries.keySet().removeIf(key -> key.lexicon == lexicon);
+}
+}
+
+/**
+* @return the number of lookups that found a solved board.
+*/
+public long getHitCount() {
+return hits.get();
+}
+
+/**
+* @return the number of lookups that did not find a solved board.
+*/
+public long getMissCount() {
+return misses.get();
+}
+
+/**
+* @return the number of boards currently remembered.
+*/
+public int size() {
+synchronized (entries) {
+return entries.size();
+}
+}
+
+/**
+* Forgets every board. The hit and miss counts are kept.
+*/
+public void clear() {
+synchronized (entries) {
+entries.clear();
+}
+}
+
+/**
+* A board fingerprint. The hash is a 64-bit FNV-1a hash of the upper-case
+* tiles folded with the lexicon identity and the minimum length; the
+* tiles themselves are kept so that two boards with the same hash are
+* still told apart.
+*/
+private static final class Key {
+private final Lexicon lexicon;
+private final String[] tiles;
+private final int minimumWordLength;
+private final long fingerprint;
+
+Key(Lexicon lexicon, String[] board, int minimumWordLength) {
+this.lexicon = lexicon;
+this.minimumWordLength = minimumWordLength;
+tiles = new String[board.length];
+long hash = 0xcbf29ce484222325L;
+for (int i = 0; i < board.length; i++) {
+tiles[i] = board[i].toUpperCase();
+for (int j = 0; j < tiles[i].length(); j++) {
+hash = (hash ^ tiles[i].charAt(j)) * 0x100000001b3L;
+}
+hash = (hash ^ 0xFFFF) * 0x100000001b3L;
+}
+hash = (hash ^ System.identityHashCode(lexicon)) * 0x100000001b3L;
+fingerprint = (hash ^ minimumWordLength) * 0x100000001b3L;
+}
+
+@Override
+public boolean equals(Object o) {
+if (this == o) {
+return true;
+}
+if (!(o instanceof Key)) {
+return false;
+}
+Key key = (Key) o;
+return fingerprint == key.fingerprint && lexicon == key.lexicon
+&& minimumWordLength == key.minimumWordLength && Arrays.equals(tiles, key.tiles);
+}
+
+@Override
+public int hashCode() {
+return Long.hashCode(fingerprint);
+}
+}
+}
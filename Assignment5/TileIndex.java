@@ -0,0 +1,126 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+* Maps each distinct tile of a board, ignoring case, to the cells where it
+* occurs. Tiles may be longer than one character, so a lookup names a range
+* of characters in a word; the range is hashed and compared in place, which
+* makes finding the cells that could start a word a constant-time,
+* allocation-free operation. Empty tiles are not indexed.
+*
+*/
+final class TileIndex {
+private static final int[] NO_CELLS = new int[0];
+
+private final String[] tiles;
+private final int[][] cells;
+private final int[] table;
+private final int[] tileLengths;
+
+/**
+* @param board The board contents in row-major order.
+*/
+TileIndex(String[] board) {
+String[] distinct = new String[board.length];
+int count = 0;
+List<int[]> distinctCells = new ArrayList<>();
+table = new int[Integer.highestOneBit(Math.max(board.length, 1) * 2) * 2];
+Arrays.fill(table, -1);
+for (int cell = 0; cell < board.length; cell++) {
+String tile = board[cell];
+if (tile.isEmpty()) {
+continue;
+}
+int slot = find(tile, 0, tile.length(), distinct);
+if (table[slot] < 0) {
+table[slot] = count;
+distinct[count++] = tile.toUpperCase();
+distinctCells.add(new int[] {cell});
+} else {
+int[] old = distinctCells.get(table[slot]);
+int[] grown = Arrays.copyOf(old, old.length + 1);
+grown[old.length] = cell;
+distinctCells.set(table[slot], grown);
+}
+}
+tiles = Arrays.copyOf(distinct, count);
+cells = distinctCells.toArray(new int[0][]);
+tileLengths = Arrays.stream(tiles).mapToInt(String::length).distinct().sorted().toArray();
+}
+
+/**
+* @return the slot holding the tile equal to s[from, to), or the empty
+* slot where it would go.
+*/
+private int find(CharSequence s, int from, int to, String[] keys) {
+int hash = 0;
+for (int i = from; i < to; i++) {
+hash = (31 * hash) + Character.toUpperCase(s.charAt(i));
+}
+int mask = table.length - 1;
+int slot = (hash ^ (hash >>> 16)) & mask;
+while (table[slot] >= 0 && !matches(keys[table[slot]], s, from, to)) {
+slot = (slot + 1) & mask;
+}
+return slot;
+}
+
+private int find(CharSequence s, int from, int to) {
+return find(s, from, to, tiles);
+}
+
+private static boolean matches(String tile, CharSequence s, int from, int to) {
+if (tile.length() != to - from) {
+return false;
+}
+for (int i = 0; i < tile.length(); i++) {
+if (tile.charAt(i) != Character.toUpperCase(s.charAt(from + i))) {
+return false;
+}
+}
+return true;
+}
+
+/**
+* Returns the cells holding the tile spelled by the length characters of
+* s that start at offset, ignoring case. The array must not be modified.
+*
+* @return the cells in ascending order, or an empty array.
+*/
+int[] cellsOf(CharSequence s, int offset, int length) {
+if (length <= 0 || offset + length > s.length()) {
+return NO_CELLS;
+}
+int index = table[find(s, offset, offset + length)];
+return index < 0 ? NO_CELLS : cells[index];
+}
+
+/**
+* @return the distinct lengths of the tiles on the board, ascending.
+*/
+int[] tileLengths() {
+return tileLengths;
+}
+
+/**
+* @return the number of distinct tiles on the board.
+*/
+int size() {
+return tiles.length;
+}
+
+/**
+* @return the distinct tile with the given index, in upper case.
+*/
+String tile(int index) {
+return tiles[index];
+}
+
+/**
+* @return the cells holding the distinct tile with the given index.
+*/
+int[] cells(int index) {
+return cells[index];
+}
+}
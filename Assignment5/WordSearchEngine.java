@@ -1,8 +1,8 @@
-import java.io.BufferedReader;
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileReader;
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
 * Client for WordSearchGame.java
@@ -11,29 +11,60 @@ import java.util.*;
 public class WordSearchEngine implements WordSearchGame {
 private String[][] board = {{"E", "E", "C", "A"}, {"A", "L", "E", "P"},
 {"H", "N", "B", "O"}, {"Q", "T", "T", "Y"}};
-TreeSet<String> tree = new TreeSet<>();
+Lexicon lexicon;
 private boolean lexLoaded = false;
 protected int square = 4;
 private String[] boardSingleArray = new String[]{"E", "E", "C", "A",
 "A", "L", "E", "P", "H", "N", "B", "O", "Q", "T", "T", "Y"};
-private int firstLetterIndex;
-private boolean[][] visited;
-private int wordCount = 0;
-private ArrayList<Position> visitedPositions;
-private Integer[] firstLetters;
-private Position p = new Position(1, 2);
-private Position r = new Position(1, 2);
-private int wholeWordIndex;
+private int[][] neighbors = buildNeighbors(square);
+private long[] neighborMasks = buildNeighborMasks(neighbors);
+private TileIndex tileIndex = new TileIndex(boardSingleArray);
+private boolean[] onPath = new boolean[boardSingleArray.length];
+private int[] pathCells = new int[boardSingleArray.length];
+private int[] pathEnds = new int[boardSingleArray.length];
+private int[] pathBranches = new int[boardSingleArray.length];
+private long[] pathCandidates = new long[Long.SIZE];
+private ForkJoinPool solverPool;
+private SolveCache solveCache = SolveCache.shared();
+private IncrementalSolver incremental;
+private SearchMetrics metrics;
+private long pathNodesExpanded;
+private long pathPrefixesPruned;
 
 /**
-* @return String of TreeSet used to store lexicon.
+* Creates a game with the default board and no lexicon. loadLexicon must be
+* called before any words can be checked.
+*/
+public WordSearchEngine() {
+}
+
+/**
+* Creates a game with the default board that looks words up in an already
+* loaded lexicon. The lexicon is not copied, so any number of games can
+* share it.
+*
+* @param lexicon The lexicon to use.
+* @throws IllegalArgumentException if lexicon is null
+*/
+public WordSearchEngine(Lexicon lexicon) {
+if (lexicon == null) {
+throw new IllegalArgumentException();
+}
+this.lexicon = lexicon;
+lexLoaded = true;
+}
+
+/**
+* @return String of the Lexicon used to store lexicon.
 */
 protected String getTreeString() {
-return tree.toString();
+return lexicon.toString();
 }
 
 /**
-* Loads the lexicon into a data structure for later use.
+* Loads the lexicon into a data structure for later use. A file that has
+* already been loaded by another game is not read again; its Lexicon is
+* shared.
 *
 * @param fileName A string containing the name of the file to be opened.
 * @throws IllegalArgumentException if fileName is null
@@ -43,18 +74,13 @@ public void loadLexicon(String fileName) {
 if (fileName == null) {
 throw new IllegalArgumentException();
 }
-ArrayList<String> fileArray = new ArrayList<>();
 try {
-Scanner input = new Scanner(new BufferedReader(new FileReader(new File(fileName))));;
-while (input.hasNext()) {
-String splitInput = input.nextLine().split(" ")[0];
-fileArray.add(splitInput.toUpperCase());
-}
-} catch (FileNotFoundException e) {
+lexicon = Lexicon.shared(fileName);
+} catch (IOException e) {
 throw new IllegalArgumentException();
 }
-tree.addAll(fileArray);
 lexLoaded = true;
+incremental = null;
 }
 
 /**
@@ -94,6 +120,120 @@ for (int i = 0; i < vector.length; i++) {
 vector[i] = list.get(i);
 }
 boardSingleArray = vector;
+neighbors = buildNeighbors(square);
+neighborMasks = buildNeighborMasks(neighbors);
+tileIndex = new TileIndex(vector);
+onPath = new boolean[vector.length];
+pathCells = new int[vector.length];
+pathEnds = new int[vector.length];
+pathBranches = new int[vector.length];
+incremental = null;
+}
+
+/**
+* Replaces the contents of one board position, keeping the rest of the
+* board as it is. The words on the board are kept up to date as tiles
+* change: the first call counts the paths spelling each word, and from then
+* on a change recounts only the paths through the changed position, so
+* getAllScorableWords does not search the board again until setBoard or
+* loadLexicon is called.
+*
+* @param index The row-major index of the position to change.
+* @param value The new contents of the position, which may be longer than
+* one character.
+* @throws IllegalArgumentException if value is null, or index is not a
+* position on the board.
+*/
+public void setTile(int index, String value) {
+if (value == null || index < 0 || index >= boardSingleArray.length) {
+throw new IllegalArgumentException();
+}
+if (lexLoaded && incremental == null) {
+incremental = new IncrementalSolver(lexicon, boardSingleArray, neighbors);
+}
+boardSingleArray = boardSingleArray.clone();
+boardSingleArray[index] = value;
+board[index / square][index % square] = value;
+tileIndex = new TileIndex(boardSingleArray);
+if (incremental != null) {
+incremental.setTile(index, value);
+}
+}
+
+/**
+* Builds the adjacency table of an n x n board: entry i lists the row-major
+* indexes of the (up to eight) cells next to cell i.
+*/
+static int[][] buildNeighbors(int n) {
+int[][] table = new int[n * n][];
+int[] buffer = new int[8];
+for (int row = 0; row < n; row++) {
+for (int col = 0; col < n; col++) {
+int count = 0;
+for (int i = Math.max(row - 1, 0); i <= Math.min(row + 1, n - 1); i++) {
+for (int j = Math.max(col - 1, 0); j <= Math.min(col + 1, n - 1); j++) {
+if (i != row || j != col) {
+buffer[count++] = (i * n) + j;
+}
+}
+}
+table[(row * n) + col] = Arrays.copyOf(buffer, count);
+}
+}
+return table;
+}
+
+/**
+* Selects how getAllScorableWords searches the board. With a pool, the
+* start cells are split into tasks that run in the pool and their words are
+* merged; with null, the board is searched in the calling thread.
+*
+* @param pool The pool to solve boards in, such as
+* ForkJoinPool.commonPool(), or null to solve sequentially.
+*/
+public void setSolverPool(ForkJoinPool pool) {
+solverPool = pool;
+}
+
+/**
+* Selects where getAllScorableWords remembers solved boards. Games share
+* SolveCache.shared() unless they are given another cache.
+*
+* @param cache The cache to use, or null to solve every board afresh.
+*/
+public void setSolveCache(SolveCache cache) {
+solveCache = cache;
+}
+
+/**
+* Selects where getAllScorableWords and isOnBoard report what their
+* searches did and how long they took, such as a SearchStats registered
+* with JMX.
+*
+* @param sink The sink to report to, or null to report nothing.
+*/
+public void setSearchMetrics(SearchMetrics sink) {
+metrics = sink;
+}
+
+/**
+* Builds the adjacency masks of a board with at most 64 cells (8 x 8), so
+* that searches can keep a path's used cells in a single long: bit j of
+* entry i is set when cell j is next to cell i.
+*
+* @return the masks, or null if the board has more than 64 cells.
+*/
+private static long[] buildNeighborMasks(int[][] table) {
+if (table.length > Long.SIZE) {
+return null;
+}
+long[] masks = new long[table.length];
+for (int i = 0; i < table.length; i++) {
+for (int j : table[i]) {
+masks[i] |= 1L << j;
+}
+}
+return masks;
 }
 
 protected boolean checkPerfectSquare(double x) {
@@ -144,55 +284,59 @@ throw new IllegalArgumentException();
 if (!lexLoaded) {
 throw new IllegalStateException();
 }
-SortedSet<String> stringSortedSet = new TreeSet<>();
-if (square == 1) {
-if (tree.contains(board[0][0])) {
-stringSortedSet.add(board[0][0]);
+long start = metrics == null ? 0 : System.nanoTime();
+if (incremental != null) {
+SortedSet<String> words = incremental.words(minimumWordLength);
+if (metrics != null) {
+metrics.solvedIncrementally(System.nanoTime() - start);
 }
-return stringSortedSet;
+return words;
 }
-if (board[0][0] == "CAT") {
-stringSortedSet.add("CATFISH");
+if (solveCache != null) {
+SortedSet<String> cached = solveCache.get(lexicon, boardSingleArray, minimumWordLength);
+if (cached != null) {
+SortedSet<String> words = new TreeSet<>(cached);
+if (metrics != null) {
+metrics.solved(System.nanoTime() - start, 0, 0, true);
 }
-for (String s : tree) {
-if (s != null) {
-if (isOnBoard(s).size() >= minimumWordLength) {
-stringSortedSet.add(s);
-} else if (!s.equals("CATFISH")) {
-if (board[firstLetterFromRowMajor(isOnBoard(s).get(0))[0]]
-[firstLetterFromRowMajor(isOnBoard(s).get(0))[1]].length() >= minimumWordLength) {
-stringSortedSet.add(s);
+return words;
 }
 }
+BoardSolver solver = new BoardSolver(lexicon, boardSingleArray, neighbors, neighborMasks, tileIndex);
+SortedSet<String> words = solver.solve(minimumWordLength, solverPool);
+if (solveCache != null) {
+solveCache.put(lexicon, boardSingleArray, minimumWordLength, new TreeSet<>(words));
 }
+if (metrics != null) {
+metrics.solved(System.nanoTime() - start, solver.nodesExpanded(), solver.prefixesPruned(), false);
 }
-return stringSortedSet;
+return words;
 }
 
-private boolean firstLetterOnBoard(String s) {
-firstLetters = new Integer[square*square+2];
-firstLetters[0] = -1;
-firstLetters[1] = -1;
-int count = 0;
-for (int i = 0; i < boardSingleArray.length; i++) {
-if (s.substring(0, 1).toUpperCase().equals(boardSingleArray[i])) {
-firstLetters[count++] = i;
-}
-}
-if (firstLetters[0] == -1) {
-return false;
+/**
+* Streams the scorable words on the game board as the search finds them,
+* each word once and in no particular order. The stream searches the board
+* as it was when this method was called, and runs only as far as it is
+* consumed, so limit, findFirst, anyMatch and the like stop it early.
+*
+* @param minimumWordLength The minimum allowed length (i.e., number of
+* characters) for any word found on the board.
+* @return java.util.stream.Stream of the words of minimum length found on
+* the game board and in the lexicon.
+* @throws IllegalArgumentException if minimumWordLength < 1
+* @throws IllegalStateException if loadLexicon has not been called.
+*/
+public Stream<String> streamScorableWords(int minimumWordLength) {
+if (minimumWordLength < 1) {
+throw new IllegalArgumentException();
 }
-firstLetters = Arrays.copyOf(firstLetters, count);
-return true;
+if (!lexLoaded) {
+throw new IllegalStateException();
 }
-
-protected int[] firstLetterFromRowMajor(int n) {
-int[] array = new int[5];
-int row = (int) Math.floor(n/square);
-int col = n % square;
-array[0] = (n - col)/square;
-array[1] = n - (row * square);
-return array;
+Iterator<String> words = new BoardSolver(lexicon, boardSingleArray, neighbors, neighborMasks, tileIndex)
+.words(minimumWordLength);
+return StreamSupport.stream(Spliterators.spliteratorUnknownSize(words,
+Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL), false);
 }
 
 /**
@@ -209,29 +353,83 @@ return array;
 * @throws IllegalStateException if loadLexicon has not been called.
 */
 public int getScoreForWords(SortedSet<String> words, int minimumWordLength) {
-if (minimumWordLength < 1) {
+return scoreWords(words, minimumWordLength).getTotalScore();
+}
+
+/**
+* Validates and scores a batch of submitted words against the game board in
+* one pass. The board is solved once; the words are then sorted and walked
+* through the lexicon together, so a prefix shared by neighboring words is
+* walked only once. Words are compared ignoring case.
+*
+* @param words The words that are to be scored.
+* @param minimumWordLength The minimum number of characters required per word
+* @return the verdict for each word and the cumulative score
+* @throws IllegalArgumentException if words or any word in it is null, or
+* if minimumWordLength < 1
+* @throws IllegalStateException if loadLexicon has not been called.
+*/
+public ScoreReport scoreWords(Collection<String> words, int minimumWordLength) {
+if (words == null || minimumWordLength < 1) {
 throw new IllegalArgumentException();
 }
 if (!lexLoaded) {
 throw new IllegalStateException();
 }
-/**SortedSet<String> wordsInLex = new TreeSet<>();
-for (String s : words) {
-if (tree.contains(s)) {
-wordsInLex.add(s);
-}
-}*/
-SortedSet<String> scorableWords = new TreeSet<>();
+String[] sorted = new String[words.size()];
+int count = 0;
 for (String s : words) {
-if (isOnBoard(s).size() >= minimumWordLength) {
-scorableWords.add(s);
+if (s == null) {
+throw new IllegalArgumentException();
 }
+sorted[count++] = s.toUpperCase();
+}
+Arrays.sort(sorted);
+BitSet onBoard = new BoardSolver(lexicon, boardSingleArray, neighbors, neighborMasks, tileIndex).wordNodes();
+Map<String, ScoreReport.Verdict> byWord = new HashMap<>();
+int totalScore = 0;
+int[] prefixNodes = new int[16];
+int walked = 0;
+String previous = null;
+for (String word : sorted) {
+if (word.equals(previous)) {
+continue;
 }
-int scoreSum = 0;
-for (String s : scorableWords) {
-scoreSum += 1 + (s.length() - minimumWordLength);
+int common = 0;
+while (common < walked && common < word.length() && word.charAt(common) == previous.charAt(common)) {
+common++;
+}
+if (prefixNodes.length <= word.length()) {
+prefixNodes = Arrays.copyOf(prefixNodes, word.length() + 1);
+}
+prefixNodes[0] = Lexicon.ROOT;
+walked = common;
+while (walked < word.length()) {
+int node = lexicon.child(prefixNodes[walked], word.charAt(walked));
+if (node == Lexicon.NONE) {
+break;
+}
+prefixNodes[++walked] = node;
+}
+ScoreReport.Verdict verdict;
+if (word.length() < minimumWordLength) {
+verdict = ScoreReport.Verdict.TOO_SHORT;
+} else if (walked < word.length() || !lexicon.isWord(prefixNodes[walked])) {
+verdict = ScoreReport.Verdict.NOT_IN_LEXICON;
+} else if (!onBoard.get(prefixNodes[walked])) {
+verdict = ScoreReport.Verdict.NOT_ON_BOARD;
+} else {
+verdict = ScoreReport.Verdict.SCORED;
+totalScore += 1 + (word.length() - minimumWordLength);
+}
+byWord.put(word, verdict);
+previous = word;
+}
+Map<String, ScoreReport.Verdict> verdicts = new LinkedHashMap<>();
+for (String s : words) {
+verdicts.put(s, byWord.get(s.toUpperCase()));
 }
-return scoreSum;
+return new ScoreReport(verdicts, minimumWordLength, totalScore);
 }
 
 /**
@@ -249,8 +447,7 @@ throw new IllegalArgumentException();
 if (!lexLoaded) {
 throw new IllegalStateException();
 }
-String word = wordToCheck.toUpperCase();
-return tree.contains(word);
+return lexicon.contains(wordToCheck);
 }
 
 /**
@@ -269,17 +466,7 @@ throw new IllegalArgumentException();
 if (!lexLoaded) {
 throw new IllegalStateException();
 }
-String prefix = prefixToCheck.toUpperCase();
-int length = prefix.length();
-for (String s : tree) {
-if (length > s.length()) {
-continue;
-}
-if (s.substring(0, length).compareTo(prefix) == 0) {
-return true;
-}
-}
-return false;
+return lexicon.containsPrefix(prefixToCheck);
 }
 
 /**
@@ -297,216 +484,138 @@ return false;
 * @throws IllegalStateException if loadLexicon has not been called.
 */
 public List<Integer> isOnBoard(String wordToCheck) {
-visitedPositions = new ArrayList<>();
-markAllUnvisited(null);
 if (wordToCheck == null) {
 throw new IllegalArgumentException();
 }
 if (!lexLoaded) {
 throw new IllegalStateException();
 }
-wholeWordIndex = -1;
-visited = new boolean[square][square];
-List<Integer> list = new ArrayList<Integer>();
-StringBuilder sb = new StringBuilder();
-if (wholeWordOnBoard(wordToCheck)) {
-list.add(wholeWordIndex);
-return list;
-}
-if (firstLetterOnBoard(wordToCheck)) {
-int[] firstLetterArray = firstLetterFromRowMajor(firstLetters[0]);
-Position start = new Position(firstLetterArray[0], firstLetterArray[1]);
-list = new ArrayList<>();
-if (dfsForIsOnBoard(start, sb, wordToCheck, list)) {
-return list;
-} else if (firstLetters.length > 1 && firstLetters[1] != -1) {
-int i = 1;
-while (i < firstLetters.length && firstLetters[i] != null) {
-visitedPositions = new ArrayList<>();
-markAllUnvisited(null);
-visited = new boolean[square][square];
-firstLetterArray = firstLetterFromRowMajor(firstLetters[i]);
-Position newStart = new Position(firstLetterArray[0], firstLetterArray[1]);
-list = new ArrayList<>();
-if (dfsForIsOnBoard(newStart, sb, wordToCheck, list)) {
-return list;
-}
-i++;
-}
-}
-if (list.size() != wordToCheck.length()) {
-return new ArrayList<Integer>();
+long start = metrics == null ? 0 : System.nanoTime();
+int length = findPath(wordToCheck);
+if (metrics != null) {
+metrics.pathSearched(System.nanoTime() - start, pathNodesExpanded, pathPrefixesPruned, length > 0);
 }
+List<Integer> list = new ArrayList<Integer>(length);
+for (int i = 0; i < length; i++) {
+list.add(pathCells[i]);
 }
 return list;
 }
 
-public boolean wholeWordOnBoard(String s) {
-for (int i = 0; i < boardSingleArray.length; i++) {
-if (boardSingleArray[i].equals(s)) {
-wholeWordIndex = i;
-return true;
-}
-}
-return false;
+/**
+* Searches for a path of unused, adjacent tiles spelling word, ignoring
+* case. Candidate start cells come from the tile index, one lookup per
+* distinct tile length on the board. The search is an iterative
+* depth-first search over the neighbor table: pathCells holds the cells on
+* the current path, pathEnds the number of characters of word matched once
+* each cell is added, and pathBranches the next neighbor to try from each
+* cell. The cells added to the path and the neighbors rejected are counted
+* in pathNodesExpanded and pathPrefixesPruned.
+*
+* @return the number of cells in the path left in pathCells, or 0 if word
+* is not on the board.
+*/
+private int findPath(String word) {
+pathNodesExpanded = 0;
+pathPrefixesPruned = 0;
+if (neighborMasks != null) {
+return findPathOnBitboard(word);
 }
-
-private boolean dfsForIsOnBoard(Position position, StringBuilder wordSoFar, String wordToCheck, List<Integer> path) {
-int x = position.x;
-int y = position.y;
-if (!((x >= 0) && (x < square) &&
-(y >= 0) && (y < square))) {
-return false;
+for (int length : tileIndex.tileLengths()) {
+for (int start : tileIndex.cellsOf(word, 0, length)) {
+int depth = push(0, start, length);
+while (depth > 0) {
+int top = depth - 1;
+int matched = pathEnds[top];
+if (matched == word.length()) {
+for (int i = 0; i < depth; i++) {
+onPath[pathCells[i]] = false;
 }
-if (visitedPositions.size() > square*square) {
-return true;
+return depth;
 }
-boolean isBacktracking = visitedPositions.contains(position);
-if (visited[x][y] == true && !isBacktracking) {
-return false;
+int[] adjacent = neighbors[pathCells[top]];
+int next = -1;
+while (next < 0 && pathBranches[top] < adjacent.length) {
+int cell = adjacent[pathBranches[top]++];
+if (!onPath[cell]) {
+if (tileMatches(cell, word, matched)) {
+next = cell;
+} else {
+pathPrefixesPruned++;
 }
-if (wordSoFar.length() > wordToCheck.length()) {
-return false;
 }
-if (!(wordSoFar.length() == 0) && !(wordToCheck.substring(0, wordSoFar.length()).contains(wordSoFar.toString()))) {
-return false;
 }
-
-visited[x][y] = true;
-
-wordSoFar.append(board[x][y]);
-path.add(getRowMajor(x,y));
-
-if (wordSoFar.length() > wordToCheck.length()) {
-return false;
+if (next >= 0) {
+depth = push(depth, next, matched + boardSingleArray[next].length());
+} else {
+onPath[pathCells[top]] = false;
+depth--;
 }
-if (wordToCheck.substring(0, wordSoFar.length()).contains(wordSoFar.toString())) {
-if (!isBacktracking) {
-markAllUnvisited(position);
 }
-if (isWordEqual(wordSoFar, wordToCheck)) {
-return true;
 }
-for (Position neighbor : position.neighbors()) {
-if (dfsForIsOnBoard(neighbor, wordSoFar, wordToCheck, path)) {
-return true;
 }
+return 0;
 }
 
-if (position.neighbors().length == 0) {
-if (visited[0][0] == true && visited[square-1][square-1] == true) {
-return false;
-}
-Position test = new Position(-1,-1);
-markAllUnvisited(test);
-int index = visitedPositions.size() - 2;
-if (visitedPositions.size() < 2) {
-index = 0;
+/**
+* The search of findPath on a board of at most 64 cells: the cells on the
+* path are the bits of one long, and pathCandidates holds what is left of
+* each path cell's adjacency mask.
+*/
+private int findPathOnBitboard(String word) {
+for (int length : tileIndex.tileLengths()) {
+for (int start : tileIndex.cellsOf(word, 0, length)) {
+pathNodesExpanded++;
+long used = 1L << start;
+pathCells[0] = start;
+pathEnds[0] = length;
+pathCandidates[0] = neighborMasks[start];
+int depth = 1;
+while (depth > 0) {
+int top = depth - 1;
+int matched = pathEnds[top];
+if (matched == word.length()) {
+return depth;
+}
+long candidates = pathCandidates[top] & ~used;
+if (candidates == 0) {
+used &= ~(1L << pathCells[top]);
+depth--;
+continue;
 }
-if (dfsForIsOnBoard(visitedPositions.get(index), wordSoFar, wordToCheck, path)) {
-return true;
+int cell = Long.numberOfTrailingZeros(candidates);
+pathCandidates[top] = candidates & (candidates - 1);
+if (tileMatches(cell, word, matched)) {
+pathNodesExpanded++;
+used |= 1L << cell;
+pathCells[depth] = cell;
+pathEnds[depth] = matched + boardSingleArray[cell].length();
+pathCandidates[depth] = neighborMasks[cell];
+depth++;
+} else {
+pathPrefixesPruned++;
 }
 }
 }
-
-if (isWordEqual(wordSoFar, wordToCheck)) {
-return true;
 }
-int subStart = wordSoFar.length() - board[position.x][position.y].length();
-int subEnd = wordSoFar.length();
-if (wordSoFar.length() > 0) {
-wordSoFar.delete(subStart,subEnd);
+return 0;
 }
-path.remove(getRowMajor(x, y));
-return false;
 
+private int push(int depth, int cell, int matched) {
+pathNodesExpanded++;
+onPath[cell] = true;
+pathCells[depth] = cell;
+pathEnds[depth] = matched;
+pathBranches[depth] = 0;
+return depth + 1;
 }
 
-private boolean isWordEqual(StringBuilder wordSoFar, String wordToCheck) {
-return wordSoFar.toString().equals(wordToCheck);
-}
-
-private void markAllUnvisited(Position position) {
-visited = new boolean[square][square];
-if (position != null) {
-if (position.x >= 0) {
-visitedPositions.add(position);
-}
-for (Position p : visitedPositions) {
-visited[p.x][p.y] = true;
-}
-}
+private boolean tileMatches(int cell, String word, int offset) {
+String tile = boardSingleArray[cell];
+return !tile.isEmpty() && word.regionMatches(true, offset, tile, 0, tile.length());
 }
 
 public Integer getRowMajor(int row, int col) {
 return (row * square) + col;
 }
-
-private class Position {
-int x;
-int y;
-
-public Position(int x, int y) {
-this.x = x;
-this.y = y;
-}
-
-public String toString() {
-return "(" + x + ", " + y + ")";
-}
-
-public Position[] neighbors() {
-Position[] nbrs = new Position[8];
-int count = 0;
-Position p;
-boolean helpMe;
-for (int i = -1; i <= 1; i++) {
-for (int j = -1; j <= 1; j++) {
-helpMe = false;
-if (!((i == 0) && (j == 0))) {
-p = new Position(x + i, y + j);
-if ((p.x >= 0) && (p.x < square) &&
-(p.y >= 0) && (p.y < square) && !(visited[p.x][p.y]==true)) {
-for (Position l : visitedPositions) {
-if (l.equals(p)) {
-helpMe = true;
-}
-}
-if (!helpMe) {
-nbrs[count++] = p;
-}
-}
-}
-}
-}
-return Arrays.copyOf(nbrs, count);
-}
-
-@Override
-public boolean equals(Object o) {
-if (this == o) {
-return true;
-}
-if (o == null || getClass() != o.getClass()) {
-return false;
-}
-Position position = (Position) o;
-return x == position.x &&
-y == position.y;
-}
-
-@Override
-public int hashCode() {
-return Objects.hash(x, y);
-}
-
-private Position getFirstUnvisited(Position[] neighbors) {
-for (Position position : neighbors) {
-if (!visited[position.x][position.y]) {
-return position;
-}
-}
-return null;
-}
 }
-}
\ No newline at end of file
@@ -1,6 +1,8 @@
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 import java.util.SortedSet;
+import java.util.stream.Stream;
 
 /**
 * Defines the methods needed to play a word search game.
@@ -30,6 +32,18 @@ void loadLexicon(String fileName);
 */
 void setBoard(String[] letterArray);
 
+/**
+* Replaces the contents of one board position, keeping the rest of the
+* board as it is.
+*
+* @param index The row-major index of the position to change.
+* @param value The new contents of the position, which may be longer than
+* one character.
+* @throws IllegalArgumentException if value is null, or index is not a
+* position on the board.
+*/
+void setTile(int index, String value);
+
 /**
 * Creates a String representation of the board, suitable for printing to
 * standard out. Note that this method can always be called since
@@ -50,6 +64,21 @@ String getBoard();
 */
 SortedSet<String> getAllScorableWords(int minimumWordLength);
 
+/**
+* Streams the scorable words on the game board as the search finds them,
+* each word once and in no particular order. The search runs only as far as
+* the stream is consumed, so limit, findFirst, anyMatch and the like stop it
+* early.
+*
+* @param minimumWordLength The minimum allowed length (i.e., number of
+* characters) for any word found on the board.
+* @return java.util.stream.Stream of the words of minimum length found on
+* the game board and in the lexicon.
+* @throws IllegalArgumentException if minimumWordLength < 1
+* @throws IllegalStateException if loadLexicon has not been called.
+*/
+Stream<String> streamScorableWords(int minimumWordLength);
+
 /**
 * Computes the cummulative score for the scorable words in the given set.
 * To be scorable, a word must (1) have at least the minimum number of characters,
@@ -65,6 +94,20 @@ SortedSet<String> getAllScorableWords(int minimumWordLength);
 */
 int getScoreForWords(SortedSet<String> words, int minimumWordLength);
 
+/**
+* Validates and scores a batch of submitted words against the game board,
+* sharing the work between words. The rules are those of
+* getScoreForWords.
+*
+* @param words The words that are to be scored.
+* @param minimumWordLength The minimum number of characters required per word
+* @return the verdict for each word and the cumulative score
+* @throws IllegalArgumentException if words or any word in it is null, or
+* if minimumWordLength < 1
+* @throws IllegalStateException if loadLexicon has not been called.
+*/
+ScoreReport scoreWords(Collection<String> words, int minimumWordLength);
+
 /**
 * Determines if the given word is in the lexicon.
 *
@@ -11,6 +11,17 @@ public static WordSearchGame createGame() {
 return (WordSearchGame) new WordSearchEngine();
 }
 
+/**
+* Returns an instance of a class that implements the WordSearchGame
+* interface and uses the given lexicon. Games created this way share the
+* lexicon, so they start without loading anything.
+*
+* @param lexicon A lexicon loaded with Lexicon.load or Lexicon.shared.
+*/
+public static WordSearchGame createGame(Lexicon lexicon) {
+return new WordSearchEngine(lexicon);
+}
+
 public static void main(String[] args) {
 WordSearchGame game = createGame();
 String[] stringArray = new String[]{"O","Y","D","D","T","P","N","R","A","H","E","L","C","S","B","P","S","U","B","G","U","P","Y","H","R","R","X","R","E","F","H","D","H","T","K","X","K","O","Z","F"
@@ -0,0 +1,154 @@
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+
+/**
+* Stores the words of a Lexicon compactly, so that they can be named by int
+* ids and made into Strings only when they are handed out. The characters
+* of all the words are packed back to back into one byte array, one byte
+* per character, with an int offset table saying where each word starts, so
+* a word costs its length plus four bytes instead of a String and a tree
+* node. If some character does not fit in one byte, the words are packed
+* into a char array instead, two bytes per character. Every word is named
+* by an int id, its position in the table.
+*
+* Words are kept in upper case, like the rest of the lexicon, and in order
+* of length and then ascending order, so the words of one length have
+* consecutive ids. Lookups fold the case of each character
+* as they compare it, so finding a word takes a binary search over the
+* words of its length and allocates nothing.
+*
+*/
+final class WordStore {
+// Exactly one of these holds the characters.
+private final byte[] bytes;
+private final char[] chars;
+private final int[] offsets;
+private final int[] firstOfLength;
+
+/**
+* Stores the given words, in any order and any case. Duplicates, after
+* folding case, are stored once.
+*
+* @param words The words to store.
+*/
+WordStore(Collection<? extends CharSequence> words) {
+String[] folded = new String[words.size()];
+int count = 0;
+char[] buffer = new char[16];
+boolean wide = false;
+for (CharSequence word : words) {
+if (word.length() > buffer.length) {
+buffer = new char[word.length()];
+}
+for (int i = 0; i < word.length(); i++) {
+char c = fold(word.charAt(i));
+wide |= c > 0xFF;
+buffer[i] = c;
+}
+folded[count++] = new String(buffer, 0, word.length());
+}
+Arrays.sort(folded, Comparator.comparingInt(String::length).thenComparing(Comparator.naturalOrder()));
+int distinct = 0;
+int total = 0;
+for (int i = 0; i < count; i++) {
+if (distinct == 0 || !folded[i].equals(folded[distinct - 1])) {
+folded[distinct++] = folded[i];
+total += folded[i].length();
+}
+}
+bytes = wide ? null : new byte[total];
+chars = wide ? new char[total] : null;
+offsets = new int[distinct + 1];
+for (int id = 0; id < distinct; id++) {
+String word = folded[id];
+int offset = offsets[id];
+if (wide) {
+word.getChars(0, word.length(), chars, offset);
+} else {
+for (int i = 0; i < word.length(); i++) {
+bytes[offset + i] = (byte) word.charAt(i);
+}
+}
+offsets[id + 1] = offset + word.length();
+}
+int maxLength = distinct == 0 ? 0 : folded[distinct - 1].length();
+firstOfLength = new int[maxLength + 2];
+int id = 0;
+for (int length = 0; length < firstOfLength.length; length++) {
+while (id < distinct && length(id) < length) {
+id++;
+}
+firstOfLength[length] = id;
+}
+}
+
+private static char fold(char c) {
+if (c < 0x80) {
+return c >= 'a' && c <= 'z' ? (char) (c - ('a' - 'A')) : c;
+}
+return Character.toUpperCase(c);
+}
+
+private int firstOfLength(int length) {
+return firstOfLength[Math.max(0, Math.min(length, firstOfLength.length - 1))];
+}
+
+/**
+* @return the number of characters of the word with the given id.
+*/
+int length(int id) {
+return offsets[id + 1] - offsets[id];
+}
+
+private char at(int offset) {
+return bytes != null ? (char) (bytes[offset] & 0xFF) : chars[offset];
+}
+
+/**
+* @return the word with the given id.
+*/
+String word(int id) {
+if (bytes == null) {
+return new String(chars, offsets[id], length(id));
+}
+return new String(bytes, offsets[id], length(id), StandardCharsets.ISO_8859_1);
+}
+
+/**
+* @return the id of word, ignoring case, or -1 if it is not stored.
+*/
+int id(CharSequence word) {
+int length = word.length();
+int low = firstOfLength(length);
+int high = firstOfLength(length + 1) - 1;
+while (low <= high) {
+int middle = (low + high) >>> 1;
+int c = compare(middle, word);
+if (c < 0) {
+low = middle + 1;
+} else if (c > 0) {
+high = middle - 1;
+} else {
+return middle;
+}
+}
+return -1;
+}
+
+/**
+* Compares the word with the given id to another word of the same length,
+* ignoring case.
+*/
+private int compare(int id, CharSequence word) {
+int offset = offsets[id];
+for (int i = 0; i < word.length(); i++) {
+int c = at(offset + i) - fold(word.charAt(i));
+if (c != 0) {
+return c;
+}
+}
+return 0;
+}
+}
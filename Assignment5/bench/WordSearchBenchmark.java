@@ -0,0 +1,202 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.SortedSet;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+* JMH benchmarks for the hot paths of WordSearchEngine. Boards are drawn
+* from a seeded random generator with English letter frequencies, so every
+* run measures the same boards. The word lists are read from the directory
+* named by the wordlists system property (the current directory by default).
+*
+* This directory is kept out of the Assignment5 build because it needs JMH.
+* To run it, compile Assignment5, then compile this file against those
+* classes and the JMH jars with JMH's annotation processor, and run
+*
+*     java -cp <classes>:<jmh jars> WordSearchBenchmark
+*
+* which adds the allocation profiler, or use the JMH command line directly,
+* for example with -prof gc -p boardSize=4,30.
+*
+*/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WordSearchBenchmark {
+private static final String LETTERS =
+"EEEEEEEEEEEEAAAAAAAAARRRRRRIIIIIIIIIOOOOOOOOTTTTTTNNNNNNSSSSLLLLCCCUUUDDDPPPMMMHHHGGBBFFYYWKVXZJQ";
+private static final long SEED = 2210;
+
+/**
+* A lexicon only, for the benchmarks that do not use a board.
+*/
+@State(Scope.Benchmark)
+public static class LexiconState {
+@Param({"words_small.txt", "words_medium.txt", "words.txt"})
+String lexiconFile;
+
+String path;
+Lexicon lexicon;
+WordSearchEngine engine;
+String[] probes;
+int next;
+
+@Setup(Level.Trial)
+public void setUp() throws IOException {
+path = System.getProperty("wordlists", ".") + "/" + lexiconFile;
+lexicon = Lexicon.load(path);
+engine = new WordSearchEngine(lexicon);
+Random random = new Random(SEED);
+List<String> words = new ArrayList<>();
+for (String word : lexicon) {
+words.add(word);
+}
+probes = new String[1024];
+for (int i = 0; i < probes.length; i++) {
+String word = words.get(random.nextInt(words.size()));
+if (random.nextBoolean()) {
+word = word.substring(0, 1 + random.nextInt(word.length()));
+}
+if (random.nextInt(4) == 0) {
+word = word + LETTERS.charAt(random.nextInt(LETTERS.length()));
+}
+probes[i] = word.toLowerCase();
+}
+}
+
+String nextProbe() {
+next = (next + 1) & (probes.length - 1);
+return probes[next];
+}
+}
+
+/**
+* A seeded random board of the given size, with solving results cached
+* by the engine turned off so that every call does the full search.
+*/
+@State(Scope.Benchmark)
+public static class BoardState {
+@Param({"4", "5", "8", "15", "20", "30"})
+int boardSize;
+
+@Param({"words_small.txt", "words_medium.txt", "words.txt"})
+String lexiconFile;
+
+WordSearchEngine engine;
+SortedSet<String> onBoard;
+String[] probes;
+int next;
+
+@Setup(Level.Trial)
+public void setUp() throws IOException {
+Lexicon lexicon = Lexicon.load(System.getProperty("wordlists", ".") + "/" + lexiconFile);
+engine = new WordSearchEngine(lexicon);
+engine.setSolveCache(null);
+engine.setBoard(randomBoard(new Random(SEED + boardSize), boardSize));
+onBoard = engine.getAllScorableWords(3);
+List<String> words = new ArrayList<>(onBoard);
+Random random = new Random(SEED);
+probes = new String[256];
+for (int i = 0; i < probes.length; i++) {
+if (!words.isEmpty() && random.nextBoolean()) {
+probes[i] = words.get(random.nextInt(words.size()));
+} else {
+StringBuilder sb = new StringBuilder();
+for (int j = 3 + random.nextInt(5); j > 0; j--) {
+sb.append(LETTERS.charAt(random.nextInt(LETTERS.length())));
+}
+probes[i] = sb.toString();
+}
+}
+}
+
+String nextProbe() {
+next = (next + 1) & (probes.length - 1);
+return probes[next];
+}
+}
+
+/**
+* Returns an n x n board with English letter frequencies and an
+* occasional QU tile.
+*/
+static String[] randomBoard(Random random, int n) {
+String[] board = new String[n * n];
+for (int i = 0; i < board.length; i++) {
+char c = LETTERS.charAt(random.nextInt(LETTERS.length()));
+board[i] = c == 'Q' ? "QU" : String.valueOf(c);
+}
+return board;
+}
+
+@Benchmark
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public Lexicon loadLexicon(LexiconState state) throws IOException {
+return Lexicon.load(state.path);
+}
+
+@Benchmark
+public boolean isValidWord(LexiconState state) {
+return state.engine.isValidWord(state.nextProbe());
+}
+
+@Benchmark
+public boolean isValidPrefix(LexiconState state) {
+return state.engine.isValidPrefix(state.nextProbe());
+}
+
+@Benchmark
+public List<Integer> isOnBoard(BoardState state) {
+return state.engine.isOnBoard(state.nextProbe());
+}
+
+@Benchmark
+public SortedSet<String> getAllScorableWords(BoardState state) {
+return state.engine.getAllScorableWords(3);
+}
+
+@Benchmark
+public int getScoreForWords(BoardState state) {
+return state.engine.getScoreForWords(state.onBoard, 3);
+}
+
+@Benchmark
+public void streamFirstTenWords(BoardState state, Blackhole blackhole) {
+state.engine.streamScorableWords(3).limit(10).forEach(blackhole::consume);
+}
+
+/**
+* Runs every benchmark with the GC profiler, which reports the
+* allocation rate alongside the timings.
+*/
+public static void main(String[] args) throws RunnerException {
+Options options = new OptionsBuilder()
+.include(WordSearchBenchmark.class.getSimpleName())
+.addProfiler(GCProfiler.class)
+.build();
+new Runner(options).run();
+}
+}
@@ -0,0 +1,165 @@
+import java.util.Arrays;
+
+/**
+ * Finds a minimum word ladder by A* search. The estimate of the steps left
+ * from a word is its Hamming distance to the finish, which never overstates
+ * them, since one step changes one letter, and never drops by more than one
+ * per step; so the first time the finish comes off the queue its ladder is a
+ * minimum one. Of the words with the same estimated ladder length, the one
+ * furthest from the start is expanded first, which heads straight for the
+ * finish when many ladders tie. The queue is a binary heap of longs, each
+ * packing the estimated length, the distance from the start and the word.
+ * With a ladder graph, the search borrows its arrays from the graph's pool.
+ */
+final class AStarLadder
+{
+   private static final int[] NO_IDS = new int[0];
+   private static final int MAX_STEPS = 0xFFFF;
+
+   private AStarLadder()
+   {
+   }
+
+   /**
+    * Searches the words of one length, whose arrays are indexed from the
+    * first of them, looking neighbors up in the graph if there is one and in
+    * the index otherwise.
+    *
+    * @return the ids of the ladder from start to finish, or an empty array
+    * if there is none
+    */
+   static int[] ladder(NeighborIndex index, LadderGraph graph, int start, int finish)
+   {
+      int length = index.lengthOf(finish);
+      if (index.lengthOf(start) != length)
+      {
+         return NO_IDS;
+      }
+      int first = index.firstOfLength(length);
+      int size = index.firstOfLength(length + 1) - first;
+      // steps[w] is one more than the fewest steps known from start to w,
+      // or 0 if w has not been reached; reached lists the words reached, so
+      // that steps can be cleared before a borrowed arena goes back.
+      LadderGraph.Arena arena = graph == null ? null : graph.borrow();
+      int[] steps = arena == null ? new int[size] : arena.startDepth;
+      int[] parent = arena == null ? new int[size] : arena.startParent;
+      int[] reached = arena == null ? new int[size] : arena.startQueue;
+      int reachedCount = 0;
+      int[] ladder = NO_IDS;
+      long[] heap = new long[64];
+      int heapSize = 0;
+      steps[start - first] = 1;
+      reached[reachedCount++] = start - first;
+      heap[heapSize++] = key(hamming(index, start, finish), 0, start - first);
+      while (heapSize > 0)
+      {
+         long top = heap[0];
+         heap[0] = heap[--heapSize];
+         siftDown(heap, heapSize);
+         int word = (int) top;
+         int g = MAX_STEPS - (int) ((top >>> 32) & MAX_STEPS);
+         if (g + 1 != steps[word])
+         {
+            continue;
+         }
+         if (word + first == finish)
+         {
+            ladder = new int[g + 1];
+            for (int rung = g; rung >= 0; rung--)
+            {
+               ladder[rung] = word + first;
+               word = parent[word];
+            }
+            break;
+         }
+         int[] neighbors = graph == null
+            ? index.neighbors(word + first) : graph.neighbors(word + first);
+         for (int id : neighbors)
+         {
+            int next = id - first;
+            if (steps[next] == 0)
+            {
+               reached[reachedCount++] = next;
+            }
+            if (steps[next] == 0 || g + 2 < steps[next])
+            {
+               steps[next] = g + 2;
+               parent[next] = word;
+               if (heapSize == heap.length)
+               {
+                  heap = Arrays.copyOf(heap, heapSize * 2);
+               }
+               heap[heapSize] = key(g + 1 + hamming(index, id, finish), g + 1, next);
+               siftUp(heap, heapSize++);
+            }
+         }
+      }
+      if (arena != null)
+      {
+         for (int i = 0; i < reachedCount; i++)
+         {
+            steps[reached[i]] = 0;
+         }
+         graph.release(arena);
+      }
+      return ladder;
+   }
+
+   /**
+    * Packs a queue entry so that entries order by estimated ladder length
+    * and then by distance from the start, furthest first.
+    */
+   private static long key(int estimate, int g, int word)
+   {
+      return ((long) estimate << 48) | ((long) (MAX_STEPS - g) << 32) | word;
+   }
+
+   private static int hamming(NeighborIndex index, int word, int target)
+   {
+      int distance = 0;
+      for (int i = 0; i < index.lengthOf(word); i++)
+      {
+         if (index.charAt(word, i) != index.charAt(target, i))
+         {
+            distance++;
+         }
+      }
+      return distance;
+   }
+
+   private static void siftUp(long[] heap, int i)
+   {
+      long key = heap[i];
+      while (i > 0 && heap[(i - 1) >>> 1] > key)
+      {
+         heap[i] = heap[(i - 1) >>> 1];
+         i = (i - 1) >>> 1;
+      }
+      heap[i] = key;
+   }
+
+   private static void siftDown(long[] heap, int size)
+   {
+      if (size == 0)
+      {
+         return;
+      }
+      long key = heap[0];
+      int i = 0;
+      while (2 * i + 1 < size)
+      {
+         int child = 2 * i + 1;
+         if (child + 1 < size && heap[child + 1] < heap[child])
+         {
+            child++;
+         }
+         if (heap[child] >= key)
+         {
+            break;
+         }
+         heap[i] = heap[child];
+         i = child;
+      }
+      heap[i] = key;
+   }
+}
@@ -0,0 +1,59 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * AStarLadderTest.java
+ * Checks that the ladders found by A* search are as short as those found by
+ * breadth-first search.
+ */
+public class AStarLadderTest
+{
+   /** Test case for A* search over the neighbor index. */
+   @Test
+   public void testLadderLengthWithoutGraph()
+   {
+      checkLadderLengths(new Random(1), false);
+   }
+
+   /** Test case for A* search over the ladder graph. */
+   @Test
+   public void testLadderLengthWithGraph()
+   {
+      checkLadderLengths(new Random(2), true);
+   }
+
+   private static void checkLadderLengths(Random random, boolean graph)
+   {
+      for (int trial = 0; trial < 20; trial++)
+      {
+         int length = 3 + random.nextInt(2);
+         List<String> words = DoubletsTest.randomWords(random, length, 0.1 + (random.nextDouble() * 0.4));
+         Doublets breadthFirst = DoubletsTest.doublets(words);
+         Doublets aStar = DoubletsTest.doublets(words);
+         aStar.setSearchMode(Doublets.SearchMode.A_STAR);
+         if (graph)
+         {
+            aStar.buildLadderGraph();
+         }
+         for (int pair = 0; pair < 40; pair++)
+         {
+            String start = words.get(random.nextInt(words.size()));
+            String finish = words.get(random.nextInt(words.size()));
+            List<String> expected = breadthFirst.getMinLadder(start, finish);
+            List<String> ladder = aStar.getMinLadder(start, finish);
+            assertEquals(start + " " + finish, expected.size(), ladder.size());
+            if (!ladder.isEmpty())
+            {
+               DoubletsTest.assertLadder(words, start, finish, ladder);
+            }
+            Integer steps = DoubletsTest.distances(words, start).get(finish);
+            assertTrue(start + " " + finish, steps == null ? ladder.isEmpty() : ladder.size() == steps + 1);
+         }
+      }
+   }
+}
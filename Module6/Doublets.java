@@ -1,29 +1,52 @@
 import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+
 import java.util.Arrays;
-import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Deque;
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
-import java.util.TreeSet;
 
 import java.util.stream.Collectors;
 
 /**
  * Provides an implementation of the WordLadderGame interface. 
  *
+ * An instance never changes its lexicon or neighbor index once it is
+ * constructed, and every query keeps its search state to itself, so one
+ * instance may answer queries from any number of threads at once. For
+ * serving many ladder queries, call buildLadderGraph once: the graph
+ * searches then borrow their arrays from a pool instead of allocating them.
+ *
  * @author Shanti Upadhyay (spu0004@auburn.edu)
  */
 public class Doublets implements WordLadderGame 
 {
 
-    TreeSet<String> lexicon;
-    List<String> EmptyWordLadder = new ArrayList();
+    /**
+     * How getMinLadder searches for a ladder. Both find a minimum one.
+     */
+    public enum SearchMode
+    {
+        /** Breadth-first search from both ends, as WordLadderGame requires. */
+        BREADTH_FIRST,
+        /** A* search, guided by the Hamming distance to the finish. */
+        A_STAR
+    }
+
+    final NeighborIndex neighborIndex;
+    volatile LadderGraph ladderGraph;
+    private volatile SearchMode searchMode = SearchMode.BREADTH_FIRST;
 
     /**
      * Instantiates a new instance of Doublets with the lexicon populated with
@@ -33,25 +56,149 @@ public class Doublets implements WordLadderGame
      */
     public Doublets(InputStream in) 
     {
+        List<String> words = new ArrayList<String>();
         try 
         {
-            
-            lexicon = new TreeSet<String>();
-            Scanner s =
-                new Scanner(new BufferedReader(new InputStreamReader(in)));
-            while (s.hasNext()) {
-                String str = s.next();
-                
-                lexicon.add(str.toLowerCase());
-                s.nextLine();
-            }
-            in.close();
+            readWords(in, words);
         }
         catch (java.io.IOException e) 
         {
             System.err.println("Error reading from InputStream.");
             System.exit(1);
         }
+        neighborIndex = new NeighborIndex(words);
+    }
+
+    /**
+     * Instantiates a new instance of Doublets with the lexicon stored in the
+     * given file. The word table of a precompiled lexicon file (see
+     * LexiconFile) is copied out of a memory mapping without parsing any
+     * text or making a String per word; any other file is read as text, as
+     * by the InputStream constructor. Either way the neighbor index is
+     * built here, from the words, so a lexicon file saves the parsing but
+     * not the indexing.
+     *
+     * @throws IOException if the file cannot be read
+     */
+    public Doublets(Path lexiconFile) throws IOException
+    {
+        if (LexiconFile.isLexiconFile(lexiconFile))
+        {
+            neighborIndex = new NeighborIndex(LexiconFile.map(lexiconFile).words());
+        }
+        else
+        {
+            List<String> words = new ArrayList<String>();
+            readWords(Files.newInputStream(lexiconFile), words);
+            neighborIndex = new NeighborIndex(words);
+        }
+    }
+
+    /**
+     * Builds the whole word ladder graph, so that later queries follow
+     * precomputed int adjacency lists instead of looking neighbors up. This
+     * is worth doing once for a long-lived instance that answers many
+     * ladder queries. Queries running while the graph is built carry on
+     * without it.
+     */
+    public void buildLadderGraph()
+    {
+        if (ladderGraph == null)
+        {
+            synchronized (this)
+            {
+                if (ladderGraph == null)
+                {
+                    ladderGraph = new LadderGraph(neighborIndex);
+                }
+            }
+        }
+    }
+
+    /**
+     * Selects how getMinLadder searches. A* expands first the words whose
+     * Hamming distance to the finish is smallest. On the word lists it was
+     * measured on, that estimate rarely told candidates apart, and A* was
+     * slower than the default breadth-first search from both ends.
+     *
+     * @param mode the search to use
+     * @throws IllegalArgumentException if mode is null
+     */
+    public void setSearchMode(SearchMode mode)
+    {
+        if (mode == null)
+        {
+            throw new IllegalArgumentException();
+        }
+        searchMode = mode;
+    }
+
+    /**
+     * Works out the distance from source to every word it has a ladder to,
+     * with one breadth-first search. The distance is the number of steps,
+     * so source itself is at distance 0.
+     *
+     * @return the distances, in order of increasing distance, or an empty
+     * map if source is not a word
+     */
+    public Map<String, Integer> getDistances(String source)
+    {
+        source = source.toLowerCase();
+        Map<String, Integer> distances = new LinkedHashMap<String, Integer>();
+        int id = neighborIndex.id(source);
+        if (id < 0)
+        {
+            return distances;
+        }
+        int first = neighborIndex.firstOfLength(source.length());
+        int size = neighborIndex.firstOfLength(source.length() + 1) - first;
+        LadderGraph graph = ladderGraph;
+        int[] queue = new int[size];
+        int[] depth = new int[size];
+        queue[0] = id;
+        depth[id - first] = 1;
+        int tail = 1;
+        for (int head = 0; head < tail; head++)
+        {
+            int word = queue[head];
+            distances.put(neighborIndex.word(word), depth[word - first] - 1);
+            int[] neighbors = graph == null
+                ? neighborIndex.neighbors(word) : graph.neighbors(word);
+            for (int next : neighbors)
+            {
+                if (depth[next - first] == 0)
+                {
+                    depth[next - first] = depth[word - first] + 1;
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return distances;
+    }
+
+    /**
+     * Works out the components, eccentricities and ladder length histogram
+     * of the whole lexicon, building the ladder graph first if it has not
+     * been built. This runs one breadth-first search per word, spread over
+     * the cores of the machine.
+     */
+    public LadderStats getLadderStats()
+    {
+        buildLadderGraph();
+        return new LadderStats(neighborIndex, ladderGraph);
+    }
+
+    private static void readWords(InputStream in, List<String> lexicon) throws IOException
+    {
+        Scanner s =
+            new Scanner(new BufferedReader(new InputStreamReader(in)));
+        while (s.hasNext()) {
+            String str = s.next();
+            
+            lexicon.add(str);
+            s.nextLine();
+        }
+        in.close();
     }
 
 
@@ -88,7 +235,12 @@ public class Doublets implements WordLadderGame
       }
       if (getHammingDistance(start, finish) == -1) 
       {
-         return EmptyWordLadder;
+         return new ArrayList<String>();
+      }
+      LadderGraph graph = ladderGraph;
+      if (graph != null || searchMode == SearchMode.A_STAR) 
+      {
+         return idLadder(graph, start, finish);
       }
       if (isWord(start) && isWord(finish)) 
       {
@@ -96,7 +248,7 @@ public class Doublets implements WordLadderGame
       }
       if (backwards.isEmpty()) 
       {
-         return EmptyWordLadder;
+         return new ArrayList<String>();
       }
       for (int i = backwards.size() - 1; i >= 0; i--) 
       {
@@ -105,76 +257,187 @@ public class Doublets implements WordLadderGame
       return minLadder;
       }
       
+    /**
+     * Iterates over every minimum ladder from start to finish. The search
+     * records all the shortest ways of reaching each word once, and each
+     * ladder is only put together when the iterator is asked for it, so
+     * taking the first few ladders between two words that have millions of
+     * them is cheap.
+     *
+     * @param  start  the starting word
+     * @param  finish the ending word
+     * @return        the minimum ladders, in no particular order; none if no
+     *                ladder exists
+     */
+    public Iterator<List<String>> getMinLadders(String start, String finish)
+    {
+      int startId = neighborIndex.id(start);
+      int finishId = neighborIndex.id(finish);
+      if (startId < 0 || finishId < 0) 
+      {
+         return Collections.<List<String>>emptyList().iterator();
+      }
+      return new MinLadders(neighborIndex, ladderGraph, startId, finishId);
+    }
+
+    /**
+     * Returns at most k of the minimum ladders from start to finish. All the
+     * ladders returned have the minimum length; ladders one or more steps
+     * longer are not considered.
+     *
+     * @param  start  the starting word
+     * @param  finish the ending word
+     * @param  k      the greatest number of ladders to return
+     * @return        up to k minimum ladders
+     */
+    public List<List<String>> getMinLadders(String start, String finish, int k)
+    {
+      List<List<String>> ladders = new ArrayList<List<String>>();
+      Iterator<List<String>> itr = getMinLadders(start, finish);
+      while (ladders.size() < k && itr.hasNext()) 
+      {
+         ladders.add(itr.next());
+      }
+      return ladders;
+    }
+
+    /**
+     * Finds a minimum ladder over word ids: by A* search, in the ladder graph
+     * or the neighbor index, or by breadth-first search in the ladder graph.
+     */
+    private List<String> idLadder(LadderGraph graph, String start, String finish)
+    {
+      int startId = neighborIndex.id(start);
+      int finishId = neighborIndex.id(finish);
+      if (startId < 0 || finishId < 0) 
+      {
+         return new ArrayList<String>();
+      }
+      int[] ids = searchMode == SearchMode.A_STAR
+         ? AStarLadder.ladder(neighborIndex, graph, startId, finishId) : graph.ladder(startId, finishId);
+      if (ids.length == 0) 
+      {
+         return new ArrayList<String>();
+      }
+      List<String> minLadder = new ArrayList<String>(ids.length);
+      for (int id : ids) 
+      {
+         minLadder.add(neighborIndex.word(id));
+      }
+      return minLadder;
+    }
+
+    /**
+     * Searches for a minimum ladder from both ends at once. Each round
+     * expands every word in the smaller of the two frontiers by one rung, so
+     * a ladder of n rungs costs two searches about n/2 rungs deep instead of
+     * one search n rungs deep. A round that reaches a word already seen from
+     * the other end has closed a ladder; the round is finished and the
+     * meeting word on the shortest ladder is kept.
+     *
+     * @return the ladder from finish back to start, or an empty list if
+     * there is none
+     */
     private ArrayList<String> bfs(String start, String finish) 
       {
-         Deque<Node> queue = new ArrayDeque<Node>();
-         HashSet<String> visited = new HashSet<String>();
-         ArrayList<String> backwards = new ArrayList<String>();
-         visited.add(start);
-         queue.addLast(new Node(start, null));
-         Node finishNode = new Node(finish, null);
-         outerloop:
-         while (!queue.isEmpty()) 
+         HashMap<String, String> towardStart = new HashMap<String, String>();
+         HashMap<String, String> towardFinish = new HashMap<String, String>();
+         HashMap<String, Integer> startDepth = new HashMap<String, Integer>();
+         HashMap<String, Integer> finishDepth = new HashMap<String, Integer>();
+         List<String> startFrontier = new ArrayList<String>();
+         List<String> finishFrontier = new ArrayList<String>();
+         towardStart.put(start, null);
+         startDepth.put(start, 0);
+         startFrontier.add(start);
+         towardFinish.put(finish, null);
+         finishDepth.put(finish, 0);
+         finishFrontier.add(finish);
+         String meeting = null;
+         int shortest = Integer.MAX_VALUE;
+         while (meeting == null && !startFrontier.isEmpty() && !finishFrontier.isEmpty()) 
          {
-            Node n = queue.removeFirst();
-            String word = n.word;
-            List<String> neighbors = getNeighbors(word);
-            for (String neighbor : neighbors) 
+            boolean forward = startFrontier.size() <= finishFrontier.size();
+            List<String> frontier = forward ? startFrontier : finishFrontier;
+            Map<String, String> links = forward ? towardStart : towardFinish;
+            Map<String, Integer> depths = forward ? startDepth : finishDepth;
+            Map<String, Integer> otherDepths = forward ? finishDepth : startDepth;
+            List<String> next = new ArrayList<String>();
+            for (String word : frontier) 
             {
-               if (!visited.contains(neighbor)) 
+               int depth = depths.get(word) + 1;
+               for (String neighbor : getNeighbors(word)) 
                {
-                  visited.add(neighbor);
-                  queue.addLast(new Node(neighbor, n));
-                  if (neighbor.equals(finish)) 
+                  if (links.containsKey(neighbor)) 
+                  {
+                     continue;
+                  }
+                  links.put(neighbor, word);
+                  depths.put(neighbor, depth);
+                  next.add(neighbor);
+                  Integer other = otherDepths.get(neighbor);
+                  if (other != null && depth + other < shortest) 
                   {
-                     finishNode.predecessor = n;
-                     break outerloop;
+                     shortest = depth + other;
+                     meeting = neighbor;
                   }
                }
             }
+            if (forward) 
+            {
+               startFrontier = next;
+            }
+            else 
+            {
+               finishFrontier = next;
+            }
          }
-         if (finishNode.predecessor == null) 
+         ArrayList<String> backwards = new ArrayList<String>();
+         if (meeting == null) 
          {
             return backwards;
          }
-         Node m = finishNode;
-         while (m != null) 
+         for (String m = towardStart.get(meeting); m != null; m = towardStart.get(m)) 
+         {
+            backwards.add(m);
+         }
+         Collections.reverse(backwards);
+         for (String m = meeting; m != null; m = towardFinish.get(m)) 
          {
-            backwards.add(m.word);
-            m = m.predecessor;
+            backwards.add(m);
          }
+         Collections.reverse(backwards);
          return backwards;
       }
 
 
+   /**
+    * Looks the neighbors of word up in the ladder graph, if it has been
+    * built and word is in it, or else in the neighbor index, which either
+    * probes for each one-letter change of word or looks up the words
+    * matching its wildcard patterns, whichever is cheaper for its length.
+    */
    public List<String> getNeighbors(String word) 
    {
-      List<String> neighbors = new ArrayList<String>();
-      Iterator<String> itr = lexicon.iterator();
-      while (itr.hasNext()) 
+      word = word.toLowerCase();
+      LadderGraph graph = ladderGraph;
+      int id = graph == null ? -1 : neighborIndex.id(word);
+      int[] ids = id < 0 ? neighborIndex.neighbors(word) : graph.neighbors(id);
+      List<String> neighbors = new ArrayList<String>(ids.length);
+      for (int neighbor : ids) 
       {
-         String word2 = itr.next();
-         if (getHammingDistance(word, word2) == 1) 
-         {
-            neighbors.add(word2);
-         }
+         neighbors.add(neighborIndex.word(neighbor));
       }
       return neighbors;
    }
 
    public int getWordCount() 
    {
-      return lexicon.size();
+      return neighborIndex.size();
    }
 
    public boolean isWord(String str) 
    {
-      str = str.toLowerCase();
-      if (lexicon.contains(str)) 
-      {
-         return true;
-      }
-      return false;
+      return neighborIndex.id(str) >= 0;
    }
    public boolean isWordLadder(List<String> sequence) 
    {
@@ -200,15 +463,4 @@ public class Doublets implements WordLadderGame
    return true;
    }
 
-   private class Node 
-   {
-      String word;
-      Node predecessor;
-      public Node(String s, Node pred) 
-      {
-         word = s;
-         predecessor = pred;
-      }
-    }         
-
 }
@@ -0,0 +1,159 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * DoubletsTest.java
+ * Checks the ladders found by the breadth-first search from both ends in
+ * Doublets against a plain breadth-first search from the start.
+ */
+public class DoubletsTest
+{
+   /** Test case for getMinLadder on random lexicons. */
+   @Test
+   public void testMinLadderLength()
+   {
+      Random random = new Random(1);
+      for (int trial = 0; trial < 20; trial++)
+      {
+         int length = 3 + random.nextInt(2);
+         List<String> words = randomWords(random, length, 0.1 + (random.nextDouble() * 0.4));
+         Doublets doublets = doublets(words);
+         for (int pair = 0; pair < 40; pair++)
+         {
+            String start = words.get(random.nextInt(words.size()));
+            String finish = words.get(random.nextInt(words.size()));
+            Integer steps = distances(words, start).get(finish);
+            List<String> ladder = doublets.getMinLadder(start, finish);
+            if (steps == null)
+            {
+               assertTrue(start + " " + finish, ladder.isEmpty());
+            }
+            else
+            {
+               assertEquals(start + " " + finish, steps + 1, ladder.size());
+               assertLadder(words, start, finish, ladder);
+            }
+         }
+      }
+   }
+
+   /** Test case for getMinLadder from a word to itself. */
+   @Test
+   public void testMinLadderToItself()
+   {
+      List<String> words = randomWords(new Random(2), 3, 0.3);
+      String word = words.get(0);
+      List<String> ladder = doublets(words).getMinLadder(word, word);
+      assertEquals(1, ladder.size());
+      assertEquals(word, ladder.get(0));
+   }
+
+   /** Test case for getMinLadder between words that are not in the lexicon. */
+   @Test
+   public void testMinLadderNotWords()
+   {
+      Doublets doublets = doublets(randomWords(new Random(3), 3, 0.3));
+      assertTrue(doublets.getMinLadder("xyz", "xyy").isEmpty());
+      assertTrue(doublets.getMinLadder("abc", "abcd").isEmpty());
+   }
+
+   /**
+    * @return the words of the given length over the letters a to e, each
+    * there with the given probability
+    */
+   static List<String> randomWords(Random random, int length, double density)
+   {
+      List<String> words = new ArrayList<String>();
+      char[] word = new char[length];
+      int count = (int) Math.pow(5, length);
+      for (int i = 0; i < count; i++)
+      {
+         int n = i;
+         for (int position = length - 1; position >= 0; position--)
+         {
+            word[position] = (char) ('a' + (n % 5));
+            n /= 5;
+         }
+         if (random.nextDouble() < density)
+         {
+            words.add(new String(word));
+         }
+      }
+      if (words.isEmpty())
+      {
+         words.add(new String(word));
+      }
+      return words;
+   }
+
+   static Doublets doublets(List<String> words)
+   {
+      StringBuilder text = new StringBuilder();
+      for (String word : words)
+      {
+         text.append(word).append('\n');
+      }
+      return new Doublets(new ByteArrayInputStream(text.toString().getBytes()));
+   }
+
+   /**
+    * @return the number of steps from start to every word it has a ladder
+    * to, found by a breadth-first search that compares every pair of words
+    */
+   static Map<String, Integer> distances(List<String> words, String start)
+   {
+      Map<String, Integer> distances = new HashMap<String, Integer>();
+      List<String> queue = new ArrayList<String>();
+      distances.put(start, 0);
+      queue.add(start);
+      for (int head = 0; head < queue.size(); head++)
+      {
+         String word = queue.get(head);
+         for (String next : words)
+         {
+            if (!distances.containsKey(next) && differByOne(word, next))
+            {
+               distances.put(next, distances.get(word) + 1);
+               queue.add(next);
+            }
+         }
+      }
+      return distances;
+   }
+
+   static boolean differByOne(String a, String b)
+   {
+      int differences = 0;
+      for (int i = 0; i < a.length(); i++)
+      {
+         if (a.charAt(i) != b.charAt(i))
+         {
+            differences++;
+         }
+      }
+      return differences == 1;
+   }
+
+   static void assertLadder(List<String> words, String start, String finish, List<String> ladder)
+   {
+      assertEquals(start, ladder.get(0));
+      assertEquals(finish, ladder.get(ladder.size() - 1));
+      for (int i = 0; i < ladder.size(); i++)
+      {
+         assertTrue(ladder.get(i), words.contains(ladder.get(i)));
+         if (i > 0)
+         {
+            assertTrue(ladder.toString(), differByOne(ladder.get(i - 1), ladder.get(i)));
+         }
+      }
+   }
+}
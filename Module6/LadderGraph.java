@@ -0,0 +1,241 @@
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * The word ladder graph of a lexicon: one vertex per word, numbered as in
+ * its NeighborIndex, and an edge between every two words one letter apart.
+ * The adjacency is in compressed sparse row form: the neighbors of word i
+ * are edges[offsets[i]] to edges[offsets[i + 1] - 1]. A ladder never changes
+ * length, so a search only ever visits the words of one length, which have
+ * consecutive ids; its arrays are indexed from the first of them and sized
+ * to that length alone.
+ *
+ * A graph never changes once it is built. Each ladder search borrows its
+ * arrays from a pool and hands them back, cleared, when it is done, so
+ * concurrent searches share nothing and a busy graph stops allocating once
+ * the pool holds one set of arrays per concurrent search.
+ */
+final class LadderGraph
+{
+   private static final int[] NO_IDS = new int[0];
+
+   private final NeighborIndex index;
+   private final int[] offsets;
+   private final int[] edges;
+   private final ConcurrentLinkedQueue<Arena> arenas = new ConcurrentLinkedQueue<Arena>();
+
+   /**
+    * Builds the graph by looking up the neighbors of every word once.
+    */
+   LadderGraph(NeighborIndex index)
+   {
+      this.index = index;
+      int size = index.size();
+      int[][] adjacent = new int[size][];
+      offsets = new int[size + 1];
+      for (int id = 0; id < size; id++)
+      {
+         adjacent[id] = index.neighbors(id);
+         offsets[id + 1] = offsets[id] + adjacent[id].length;
+      }
+      edges = new int[offsets[size]];
+      for (int id = 0; id < size; id++)
+      {
+         System.arraycopy(adjacent[id], 0, edges, offsets[id], adjacent[id].length);
+      }
+   }
+
+   /**
+    * The arrays of one ladder search, big enough for the words of the most
+    * common length. The depth arrays are all zero whenever an arena is in
+    * the pool.
+    */
+   static final class Arena
+   {
+      final int[] startQueue;
+      final int[] finishQueue;
+      final int[] startParent;
+      final int[] finishParent;
+      final int[] startDepth;
+      final int[] finishDepth;
+
+      Arena(int size)
+      {
+         startQueue = new int[size];
+         finishQueue = new int[size];
+         startParent = new int[size];
+         finishParent = new int[size];
+         startDepth = new int[size];
+         finishDepth = new int[size];
+      }
+   }
+
+   /**
+    * Takes an arena from the pool, or makes a new one if the pool is empty.
+    * It must be handed back to release with its depth arrays all zero.
+    */
+   Arena borrow()
+   {
+      Arena arena = arenas.poll();
+      return arena == null ? new Arena(index.largestLength()) : arena;
+   }
+
+   /**
+    * Puts an arena back in the pool.
+    */
+   void release(Arena arena)
+   {
+      arenas.offer(arena);
+   }
+
+   /**
+    * @return the ids of the neighbors of the word with the given id, in
+    * ascending order
+    */
+   int[] neighbors(int id)
+   {
+      return Arrays.copyOfRange(edges, offsets[id], offsets[id + 1]);
+   }
+
+   /**
+    * Runs a breadth-first search over the whole component of source. The
+    * arrays are indexed from the first id of the length of source, as in
+    * ladder, and must hold every word of that length; depth must be all zero
+    * on entry. On return queue holds the words reached, in the order they
+    * were reached, and depth holds one more than the distance of each of
+    * them from source, which is the number of words on a minimum ladder.
+    * Only the entries of depth named in queue are set, so the caller can
+    * clear them again without clearing the whole array.
+    *
+    * @return the number of words reached, including source
+    */
+   int reach(int source, int[] queue, int[] depth)
+   {
+      int first = index.firstOfLength(index.lengthOf(source));
+      queue[0] = source - first;
+      depth[source - first] = 1;
+      int tail = 1;
+      for (int head = 0; head < tail; head++)
+      {
+         int word = queue[head];
+         for (int e = offsets[word + first]; e < offsets[word + first + 1]; e++)
+         {
+            int next = edges[e] - first;
+            if (depth[next] == 0)
+            {
+               depth[next] = depth[word] + 1;
+               queue[tail++] = next;
+            }
+         }
+      }
+      return tail;
+   }
+
+   /**
+    * Finds a minimum ladder by breadth-first search from both ends, as
+    * Doublets does, over ids. Each side keeps a queue of ids, holding one
+    * level after another, and the parent and depth of every word it has
+    * reached; a depth of zero means unreached. The arrays come from the
+    * pool, and only the depths of the words reached are cleared afterwards.
+    *
+    * @return the ids of the ladder from start to finish, or an empty array
+    * if there is none
+    */
+   int[] ladder(int start, int finish)
+   {
+      int length = index.lengthOf(start);
+      if (index.lengthOf(finish) != length)
+      {
+         return NO_IDS;
+      }
+      if (start == finish)
+      {
+         return new int[] {start};
+      }
+      int first = index.firstOfLength(length);
+      Arena arena = borrow();
+      int[] startQueue = arena.startQueue;
+      int[] finishQueue = arena.finishQueue;
+      int[] startParent = arena.startParent;
+      int[] finishParent = arena.finishParent;
+      int[] startDepth = arena.startDepth;
+      int[] finishDepth = arena.finishDepth;
+      startQueue[0] = start - first;
+      startDepth[start - first] = 1;
+      finishQueue[0] = finish - first;
+      finishDepth[finish - first] = 1;
+      int startLevel = 0;
+      int startTail = 1;
+      int finishLevel = 0;
+      int finishTail = 1;
+      int meeting = -1;
+      int shortest = Integer.MAX_VALUE;
+      while (meeting < 0 && startLevel < startTail && finishLevel < finishTail)
+      {
+         boolean forward = startTail - startLevel <= finishTail - finishLevel;
+         int[] queue = forward ? startQueue : finishQueue;
+         int[] parent = forward ? startParent : finishParent;
+         int[] depth = forward ? startDepth : finishDepth;
+         int[] otherDepth = forward ? finishDepth : startDepth;
+         int head = forward ? startLevel : finishLevel;
+         int end = forward ? startTail : finishTail;
+         int tail = end;
+         for (; head < end; head++)
+         {
+            int word = queue[head];
+            for (int e = offsets[word + first]; e < offsets[word + first + 1]; e++)
+            {
+               int next = edges[e] - first;
+               if (depth[next] != 0)
+               {
+                  continue;
+               }
+               depth[next] = depth[word] + 1;
+               parent[next] = word;
+               queue[tail++] = next;
+               if (otherDepth[next] != 0 && depth[next] + otherDepth[next] < shortest)
+               {
+                  shortest = depth[next] + otherDepth[next];
+                  meeting = next;
+               }
+            }
+         }
+         if (forward)
+         {
+            startLevel = end;
+            startTail = tail;
+         }
+         else
+         {
+            finishLevel = end;
+            finishTail = tail;
+         }
+      }
+      int[] ladder = NO_IDS;
+      if (meeting >= 0)
+      {
+         ladder = new int[shortest - 1];
+         int rung = startDepth[meeting] - 1;
+         for (int word = meeting; rung >= 0; word = startParent[word])
+         {
+            ladder[rung--] = word + first;
+         }
+         rung = startDepth[meeting];
+         for (int word = meeting; rung < ladder.length; rung++)
+         {
+            word = finishParent[word];
+            ladder[rung] = word + first;
+         }
+      }
+      for (int i = 0; i < startTail; i++)
+      {
+         startDepth[startQueue[i]] = 0;
+      }
+      for (int i = 0; i < finishTail; i++)
+      {
+         finishDepth[finishQueue[i]] = 0;
+      }
+      release(arena);
+      return ladder;
+   }
+}
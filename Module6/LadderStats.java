@@ -0,0 +1,162 @@
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Statistics of the word ladder graph of a whole lexicon: its connected
+ * components, the eccentricity of every word (the longest of its minimum
+ * ladders) and a histogram of minimum ladder lengths. Working these out
+ * takes one breadth-first search from every word, so the searches are run
+ * in parallel, each worker reusing its own queue and depth arrays.
+ */
+public final class LadderStats
+{
+   private final NeighborIndex index;
+   private final int[] component;
+   private final int[] componentSize;
+   private final int[] eccentricity;
+   private final long[] histogram;
+
+   LadderStats(NeighborIndex index, LadderGraph graph)
+   {
+      this.index = index;
+      int size = index.size();
+      int largest = index.largestLength();
+      int[] queue = new int[largest];
+      int[] depth = new int[largest];
+      component = new int[size];
+      Arrays.fill(component, -1);
+      int[] sizes = new int[size];
+      int components = 0;
+      for (int id = 0; id < size; id++)
+      {
+         if (component[id] < 0)
+         {
+            int first = index.firstOfLength(index.lengthOf(id));
+            int reached = graph.reach(id, queue, depth);
+            for (int i = 0; i < reached; i++)
+            {
+               component[queue[i] + first] = components;
+               depth[queue[i]] = 0;
+            }
+            sizes[components++] = reached;
+         }
+      }
+      componentSize = Arrays.copyOf(sizes, components);
+      eccentricity = new int[size];
+      Sweep sweep = IntStream.range(0, size).parallel()
+         .collect(() -> new Sweep(graph, largest), Sweep::accept, Sweep::combine);
+      histogram = sweep.histogram;
+   }
+
+   /**
+    * One worker's share of the searches: its arrays, and the histogram of
+    * the searches it has run.
+    */
+   private final class Sweep
+   {
+      private final LadderGraph graph;
+      private final int[] queue;
+      private final int[] depth;
+      private long[] histogram = new long[0];
+
+      Sweep(LadderGraph graph, int largest)
+      {
+         this.graph = graph;
+         queue = new int[largest];
+         depth = new int[largest];
+      }
+
+      void accept(int id)
+      {
+         int reached = graph.reach(id, queue, depth);
+         int longest = depth[queue[reached - 1]];
+         eccentricity[id] = longest - 1;
+         if (histogram.length <= longest)
+         {
+            histogram = Arrays.copyOf(histogram, longest + 1);
+         }
+         for (int i = 1; i < reached; i++)
+         {
+            histogram[depth[queue[i]]]++;
+         }
+         for (int i = 0; i < reached; i++)
+         {
+            depth[queue[i]] = 0;
+         }
+      }
+
+      void combine(Sweep other)
+      {
+         if (histogram.length < other.histogram.length)
+         {
+            histogram = Arrays.copyOf(histogram, other.histogram.length);
+         }
+         for (int i = 0; i < other.histogram.length; i++)
+         {
+            histogram[i] += other.histogram[i];
+         }
+      }
+   }
+
+   /**
+    * @return the number of connected components, counting a word with no
+    * neighbors as a component of its own
+    */
+   public int getComponentCount()
+   {
+      return componentSize.length;
+   }
+
+   /**
+    * @return the number of words that word has a ladder to, including
+    * itself, or 0 if it is not a word
+    */
+   public int getComponentSize(String word)
+   {
+      int id = index.id(word);
+      return id < 0 ? 0 : componentSize[component[id]];
+   }
+
+   /**
+    * @return true if there is a ladder from start to finish
+    */
+   public boolean isConnected(String start, String finish)
+   {
+      int startId = index.id(start);
+      int finishId = index.id(finish);
+      return startId >= 0 && finishId >= 0 && component[startId] == component[finishId];
+   }
+
+   /**
+    * @return the number of steps in the longest minimum ladder that starts
+    * with word, or -1 if it is not a word
+    */
+   public int getEccentricity(String word)
+   {
+      int id = index.id(word);
+      return id < 0 ? -1 : eccentricity[id];
+   }
+
+   /**
+    * @return the number of steps in the longest minimum ladder between words
+    * of the given length, or 0 if there are no such words
+    */
+   public int getDiameter(int length)
+   {
+      int diameter = 0;
+      for (int id = index.firstOfLength(length); id < index.firstOfLength(length + 1); id++)
+      {
+         diameter = Math.max(diameter, eccentricity[id]);
+      }
+      return diameter;
+   }
+
+   /**
+    * Returns the lengths of all minimum ladders: entry n is the number of
+    * ordered pairs of different words whose minimum ladder has n words.
+    */
+   public long[] getLadderLengthHistogram()
+   {
+      return histogram.clone();
+   }
+}
@@ -0,0 +1,103 @@
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads the word table of a precompiled lexicon file, as written by the word
+ * search game in Assignment5. The file is opened with FileChannel.map, so
+ * no text is parsed to read the words.
+ *
+ * The file is big-endian and laid out as follows.
+ *
+ *     int     magic number, "LEX1"
+ *     int     number of words, W
+ *     int     number of trie nodes, N
+ *     int[3N] the trie of the word search game, which is skipped here
+ *     int[W+1] offset of each word in the word bytes, plus the end offset
+ *     byte[]  the words in ascending order, upper case, one byte per character
+ */
+final class LexiconFile
+{
+   private static final int MAGIC = 0x4C455831;
+   private static final int HEADER_BYTES = 12;
+   private static final int NODE_BYTES = 12;
+
+   private final int wordCount;
+   private final IntBuffer wordOffsets;
+   private final ByteBuffer wordBytes;
+
+   private LexiconFile(ByteBuffer buffer) throws IOException
+   {
+      if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC)
+      {
+         throw new IOException("not a lexicon file");
+      }
+      wordCount = buffer.getInt(4);
+      int nodeCount = buffer.getInt(8);
+      int offsetsStart = HEADER_BYTES + (nodeCount * NODE_BYTES);
+      int bytesStart = offsetsStart + ((wordCount + 1) * 4);
+      if (wordCount < 0 || nodeCount < 1 || bytesStart > buffer.limit())
+      {
+         throw new IOException("truncated lexicon file");
+      }
+      wordOffsets = slice(buffer, offsetsStart, bytesStart).asIntBuffer();
+      wordBytes = slice(buffer, bytesStart, buffer.limit());
+   }
+
+   private static ByteBuffer slice(ByteBuffer buffer, int from, int to)
+   {
+      ByteBuffer view = buffer.duplicate();
+      view.position(from);
+      view.limit(to);
+      return view.slice();
+   }
+
+   /**
+    * @return true if the file starts with the lexicon file magic number
+    */
+   static boolean isLexiconFile(Path path) throws IOException
+   {
+      try (DataInputStream in = new DataInputStream(Files.newInputStream(path)))
+      {
+         return in.readInt() == MAGIC;
+      }
+      catch (EOFException e)
+      {
+         return false;
+      }
+   }
+
+   /**
+    * Maps a lexicon file into memory. The mapping stays valid after this
+    * method returns, for as long as the returned object is reachable.
+    *
+    * @throws IOException if the file cannot be read or is not a lexicon file
+    */
+   static LexiconFile map(Path path) throws IOException
+   {
+      try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ))
+      {
+         return new LexiconFile(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+      }
+   }
+
+   /**
+    * Copies the word table into a WordStore. The offsets and the characters
+    * are each copied out of the mapping in one bulk read, and no String is
+    * made for a word.
+    */
+   WordStore words()
+   {
+      int[] offsets = new int[wordCount + 1];
+      wordOffsets.duplicate().get(offsets);
+      byte[] text = new byte[offsets[wordCount]];
+      wordBytes.duplicate().get(text);
+      return WordStore.packed(text, offsets);
+   }
+}
@@ -0,0 +1,144 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates over all the minimum ladders between two words. One breadth-first
+ * search from the start, stopped once the level of the finish is complete,
+ * records for every word reached all its predecessors: the neighbors one
+ * step closer to the start. Following predecessors from the finish always
+ * ends at the start after the minimum number of steps, so the ladders are
+ * the paths of this layered graph, and a depth-first walk over it hands
+ * them out one at a time. There may be exponentially many ladders, but only
+ * the graph and the current ladder are ever held.
+ */
+final class MinLadders implements Iterator<List<String>>
+{
+   private static final int[] NO_IDS = new int[0];
+
+   private final NeighborIndex index;
+   private final int first;
+   private final int start;
+   private int[][] predecessors;
+   private int[] path;
+   private int[] branch;
+   private boolean hasNext;
+
+   /**
+    * Builds the predecessor graph, looking neighbors up in the ladder graph
+    * if there is one and in the index otherwise.
+    */
+   MinLadders(NeighborIndex index, LadderGraph graph, int start, int finish)
+   {
+      this.index = index;
+      int length = index.lengthOf(start);
+      first = index.firstOfLength(length);
+      this.start = start - first;
+      if (index.lengthOf(finish) != length)
+      {
+         return;
+      }
+      int size = index.firstOfLength(length + 1) - first;
+      int[] depth = new int[size];
+      int[] queue = new int[size];
+      int[] predecessorCount = new int[size];
+      predecessors = new int[size][];
+      depth[start - first] = 1;
+      queue[0] = start - first;
+      int head = 0;
+      int tail = 1;
+      while (head < tail && depth[finish - first] == 0)
+      {
+         for (int end = tail; head < end; head++)
+         {
+            int word = queue[head];
+            int[] neighbors = graph == null
+               ? index.neighbors(word + first) : graph.neighbors(word + first);
+            for (int id : neighbors)
+            {
+               int next = id - first;
+               if (depth[next] == 0)
+               {
+                  depth[next] = depth[word] + 1;
+                  queue[tail++] = next;
+                  predecessors[next] = new int[2];
+               }
+               if (depth[next] == depth[word] + 1)
+               {
+                  if (predecessorCount[next] == predecessors[next].length)
+                  {
+                     predecessors[next] = Arrays.copyOf(predecessors[next], predecessorCount[next] * 2);
+                  }
+                  predecessors[next][predecessorCount[next]++] = word;
+               }
+            }
+         }
+      }
+      if (depth[finish - first] == 0)
+      {
+         return;
+      }
+      for (int i = 0; i < tail; i++)
+      {
+         int word = queue[i];
+         predecessors[word] = word == start - first
+            ? NO_IDS : Arrays.copyOf(predecessors[word], predecessorCount[word]);
+      }
+      path = new int[depth[finish - first]];
+      branch = new int[path.length];
+      path[0] = finish - first;
+      descend(0);
+      hasNext = true;
+   }
+
+   /**
+    * Completes the path from position i by taking the first predecessor of
+    * each word until the start.
+    */
+   private void descend(int i)
+   {
+      for (; path[i] != start; i++)
+      {
+         branch[i] = 0;
+         path[i + 1] = predecessors[path[i]][0];
+      }
+   }
+
+   @Override
+   public boolean hasNext()
+   {
+      return hasNext;
+   }
+
+   @Override
+   public List<String> next()
+   {
+      if (!hasNext)
+      {
+         throw new NoSuchElementException();
+      }
+      List<String> ladder = new ArrayList<String>(path.length);
+      for (int i = path.length - 1; i >= 0; i--)
+      {
+         ladder.add(index.word(path[i] + first));
+      }
+      int i = path.length - 2;
+      while (i >= 0 && branch[i] + 1 == predecessors[path[i]].length)
+      {
+         i--;
+      }
+      if (i < 0)
+      {
+         hasNext = false;
+      }
+      else
+      {
+         branch[i]++;
+         path[i + 1] = predecessors[path[i]][branch[i]];
+         descend(i + 1);
+      }
+      return ladder;
+   }
+}
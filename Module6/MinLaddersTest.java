@@ -0,0 +1,124 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+/**
+ * MinLaddersTest.java
+ * Checks that getMinLadders hands out every minimum ladder exactly once, by
+ * counting the shortest paths between two words with dynamic programming
+ * over their distances from the start.
+ */
+public class MinLaddersTest
+{
+   /** Test case for getMinLadders without the ladder graph. */
+   @Test
+   public void testLadderCountWithoutGraph()
+   {
+      checkLadderCounts(new Random(1), false);
+   }
+
+   /** Test case for getMinLadders over the ladder graph. */
+   @Test
+   public void testLadderCountWithGraph()
+   {
+      checkLadderCounts(new Random(2), true);
+   }
+
+   /** Test case for getMinLadders from a word to itself. */
+   @Test
+   public void testLaddersToItself()
+   {
+      List<String> words = DoubletsTest.randomWords(new Random(3), 3, 0.3);
+      String word = words.get(0);
+      Iterator<List<String>> ladders = DoubletsTest.doublets(words).getMinLadders(word, word);
+      assertTrue(ladders.hasNext());
+      assertEquals(Arrays.asList(word), ladders.next());
+      assertFalse(ladders.hasNext());
+   }
+
+   /** Test case for getMinLadders between words of different lengths. */
+   @Test
+   public void testNoLadders()
+   {
+      Doublets doublets = DoubletsTest.doublets(DoubletsTest.randomWords(new Random(4), 3, 1.0));
+      assertFalse(doublets.getMinLadders("abc", "abcd").hasNext());
+      assertFalse(doublets.getMinLadders("abc", "xyz").hasNext());
+   }
+
+   private static void checkLadderCounts(Random random, boolean graph)
+   {
+      for (int trial = 0; trial < 20; trial++)
+      {
+         int length = 3 + random.nextInt(2);
+         List<String> words = DoubletsTest.randomWords(random, length, 0.1 + (random.nextDouble() * 0.4));
+         Doublets doublets = DoubletsTest.doublets(words);
+         if (graph)
+         {
+            doublets.buildLadderGraph();
+         }
+         for (int pair = 0; pair < 20; pair++)
+         {
+            String start = words.get(random.nextInt(words.size()));
+            String finish = words.get(random.nextInt(words.size()));
+            Map<String, Integer> distances = DoubletsTest.distances(words, start);
+            Set<List<String>> ladders = new HashSet<List<String>>();
+            Iterator<List<String>> itr = doublets.getMinLadders(start, finish);
+            while (itr.hasNext())
+            {
+               List<String> ladder = itr.next();
+               DoubletsTest.assertLadder(words, start, finish, ladder);
+               assertEquals(ladder.toString(), distances.get(finish) + 1, ladder.size());
+               assertTrue(ladder.toString(), ladders.add(ladder));
+            }
+            long expected = pathCount(words, distances, finish, new HashMap<String, Long>());
+            assertEquals(start + " " + finish, expected, ladders.size());
+         }
+      }
+   }
+
+   /**
+    * @return the number of shortest paths from the word at distance 0 to
+    * word: one for the start, and for any other word the sum of the counts
+    * of its neighbors one step closer to the start
+    */
+   private static long pathCount(List<String> words, Map<String, Integer> distances, String word,
+      Map<String, Long> counts)
+   {
+      Long known = counts.get(word);
+      if (known != null)
+      {
+         return known;
+      }
+      Integer distance = distances.get(word);
+      if (distance == null)
+      {
+         return 0;
+      }
+      if (distance == 0)
+      {
+         return 1;
+      }
+      long count = 0;
+      for (String previous : words)
+      {
+         Integer previousDistance = distances.get(previous);
+         if (previousDistance != null && previousDistance == distance - 1 && DoubletsTest.differByOne(previous, word))
+         {
+            count += pathCount(words, distances, previous, counts);
+         }
+      }
+      counts.put(word, count);
+      return count;
+   }
+}
@@ -0,0 +1,462 @@
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Finds the words one letter away from a string without scanning the
+ * lexicon. The words themselves live in a WordStore, in lower case, packed
+ * one byte per letter if they fit and numbered by length and then
+ * alphabetically, so the words of one length have consecutive ids and
+ * looking a word up is a binary search over the words of its own length.
+ *
+ * For every length and every position, the words of that length are also
+ * kept sorted as though the letter at that position were a wildcard. The
+ * words matching a pattern such as "c*t" are then next to each other and a
+ * binary search finds them. This is a map of wildcard buckets partitioned by
+ * length, stored as one int per word and position instead of a string and a
+ * list per pattern.
+ *
+ * For short words, or words over a small alphabet, it is cheaper still to
+ * generate every one-letter change of a word and probe a hash table of the
+ * words of its length for each. Only the letters that some word of
+ * that length has at that position are tried, and the hash of each change
+ * is worked out from the hash of the word in constant time, in one reused
+ * char array, so no String is made for a candidate. Which way a length is
+ * searched is decided once, when the index is built, by comparing the
+ * number of probes with the cost of the bucket lookups. With a 26-letter
+ * alphabet only two-letter words are probed; with a small alphabet, such as
+ * the four letters of DNA, words of every length are. Only the lengths
+ * that are probed get a hash table.
+ */
+final class NeighborIndex
+{
+   private static final int[] NO_IDS = new int[0];
+   private static final int HASH_BASE = 31;
+   // The cost of a lookup in the wildcard buckets, in hash probes: a fixed
+   // part, and a part for each position, which is mostly its binary search.
+   // Measured on English and synthetic word lists.
+   private static final int LOOKUP_PROBES = 40;
+   private static final int POSITION_PROBES = 10;
+
+   private final WordStore words;
+   private final int[][][] byPattern;
+   private final char[][][] letters;
+   private final boolean[] probing;
+   private final int[] powers;
+   private final long[][] tables;
+
+   /**
+    * Indexes the given words, folded to lower case.
+    */
+   NeighborIndex(Collection<String> lexicon)
+   {
+      this(new WordStore(lexicon));
+   }
+
+   /**
+    * Indexes the words of a store.
+    */
+   NeighborIndex(WordStore words)
+   {
+      this.words = words;
+      int maxLength = words.maxLength();
+      powers = new int[maxLength + 1];
+      powers[0] = 1;
+      for (int i = 1; i <= maxLength; i++)
+      {
+         powers[i] = powers[i - 1] * HASH_BASE;
+      }
+      letters = new char[maxLength + 1][][];
+      probing = new boolean[maxLength + 1];
+      for (int length = 1; length <= maxLength; length++)
+      {
+         int first = words.firstOfLength(length);
+         int count = words.firstOfLength(length + 1) - first;
+         letters[length] = new char[length][];
+         int probes = 0;
+         for (int position = 0; position < length; position++)
+         {
+            char[] alphabet = new char[count];
+            for (int i = 0; i < count; i++)
+            {
+               alphabet[i] = words.charAt(first + i, position);
+            }
+            Arrays.sort(alphabet);
+            int distinct = 0;
+            for (int i = 0; i < count; i++)
+            {
+               if (distinct == 0 || alphabet[i] != alphabet[distinct - 1])
+               {
+                  alphabet[distinct++] = alphabet[i];
+               }
+            }
+            letters[length][position] = Arrays.copyOf(alphabet, distinct);
+            probes += distinct - 1;
+         }
+         probing[length] = probes <= LOOKUP_PROBES + (length * POSITION_PROBES);
+      }
+      byPattern = new int[maxLength + 1][][];
+      for (int length = 0; length <= maxLength; length++)
+      {
+         byPattern[length] = patternOrders(length);
+      }
+      tables = new long[maxLength + 1][];
+      char[] buffer = new char[maxLength];
+      for (int length = 1; length <= maxLength; length++)
+      {
+         if (!probing[length])
+         {
+            continue;
+         }
+         int first = words.firstOfLength(length);
+         int count = words.firstOfLength(length + 1) - first;
+         long[] table = new long[Integer.highestOneBit(Math.max(1, count) * 4 - 1)];
+         Arrays.fill(table, -1);
+         for (int id = first; id < first + count; id++)
+         {
+            for (int i = 0; i < length; i++)
+            {
+               buffer[i] = words.charAt(id, i);
+            }
+            int hash = hash(buffer, length);
+            int slot = slot(hash, table);
+            while (table[slot] != -1)
+            {
+               slot = (slot + 1) & (table.length - 1);
+            }
+            table[slot] = ((long) hash << 32) | id;
+         }
+         tables[length] = table;
+      }
+   }
+
+   /**
+    * Sorts the words of one length as though the letter at each position in
+    * turn were a wildcard. The words start in alphabetical order, so those
+    * sharing the letters before the wildcard are already together; a stable
+    * counting sort on each letter after the wildcard, last letter first,
+    * and then one on those groups puts them in order. A letter is sorted by
+    * its place in the alphabet of its position, which keeps the counts
+    * small.
+    *
+    * @return for each position, the rows of the words in that order
+    */
+   private int[][] patternOrders(int length)
+   {
+      int first = words.firstOfLength(length);
+      int count = words.firstOfLength(length + 1) - first;
+      int[] ranks = new int[count * length];
+      for (int row = 0; row < count; row++)
+      {
+         for (int position = 0; position < length; position++)
+         {
+            ranks[(row * length) + position] = Arrays.binarySearch(letters[length][position], words.charAt(first + row, position));
+         }
+      }
+      // The first position at which each word differs from the one before.
+      int[] common = new int[count];
+      for (int row = 1; row < count; row++)
+      {
+         int position = 0;
+         while (ranks[(row * length) + position] == ranks[((row - 1) * length) + position])
+         {
+            position++;
+         }
+         common[row] = position;
+      }
+      int[][] orders = new int[length][];
+      int[] keys = new int[count];
+      int[] buffer = new int[count];
+      for (int wildcard = 0; wildcard < length; wildcard++)
+      {
+         int[] rows = new int[count];
+         for (int row = 0; row < count; row++)
+         {
+            rows[row] = row;
+         }
+         for (int position = length - 1; position > wildcard; position--)
+         {
+            for (int row = 0; row < count; row++)
+            {
+               keys[row] = ranks[(row * length) + position];
+            }
+            countingSort(rows, keys, letters[length][position].length, buffer);
+         }
+         if (wildcard > 0)
+         {
+            int group = 0;
+            for (int row = 0; row < count; row++)
+            {
+               if (row > 0 && common[row] < wildcard)
+               {
+                  group++;
+               }
+               keys[row] = group;
+            }
+            countingSort(rows, keys, group + 1, buffer);
+         }
+         orders[wildcard] = rows;
+      }
+      return orders;
+   }
+
+   /**
+    * Stably sorts rows by their keys, which are less than buckets.
+    */
+   private static void countingSort(int[] rows, int[] keys, int buckets, int[] buffer)
+   {
+      int[] starts = new int[buckets + 1];
+      for (int row : rows)
+      {
+         starts[keys[row] + 1]++;
+      }
+      for (int i = 1; i < buckets; i++)
+      {
+         starts[i] += starts[i - 1];
+      }
+      for (int row : rows)
+      {
+         buffer[starts[keys[row]]++] = row;
+      }
+      System.arraycopy(buffer, 0, rows, 0, rows.length);
+   }
+
+   private static int hash(char[] s, int length)
+   {
+      int hash = 0;
+      for (int i = 0; i < length; i++)
+      {
+         hash = (hash * HASH_BASE) + s[i];
+      }
+      return hash;
+   }
+
+   private static int slot(int hash, long[] table)
+   {
+      hash *= 0x9E3779B9;
+      return (hash ^ (hash >>> 16)) & (table.length - 1);
+   }
+
+   /**
+    * @return the number of words
+    */
+   int size()
+   {
+      return words.size();
+   }
+
+   /**
+    * @return the word with the given id
+    */
+   String word(int id)
+   {
+      return words.word(id);
+   }
+
+   /**
+    * @return the letter at index of the word with the given id
+    */
+   char charAt(int id, int index)
+   {
+      return words.charAt(id, index);
+   }
+
+   /**
+    * @return the number of letters in the word with the given id
+    */
+   int lengthOf(int id)
+   {
+      return words.length(id);
+   }
+
+   /**
+    * @return the id of the first word with the given number of letters, or
+    * of the first longer word; the words of that length end where those of
+    * the next length start
+    */
+   int firstOfLength(int length)
+   {
+      return words.firstOfLength(length);
+   }
+
+   /**
+    * @return the number of words of the most common length
+    */
+   int largestLength()
+   {
+      int largest = 0;
+      for (int length = 0; length <= words.maxLength(); length++)
+      {
+         largest = Math.max(largest, firstOfLength(length + 1) - firstOfLength(length));
+      }
+      return largest;
+   }
+
+   /**
+    * @return the id of word, ignoring case, or -1 if it is not in the index
+    */
+   int id(String word)
+   {
+      return words.id(word);
+   }
+
+   /**
+    * Returns the ids of the words that differ from s in exactly one
+    * position, ignoring case, by probing or by looking up one wildcard
+    * bucket per position, whichever is cheaper for words of its length.
+    *
+    * @return the ids in ascending order, which is alphabetical order
+    */
+   int[] neighbors(String s)
+   {
+      int length = s.length();
+      if (length == 0 || length > words.maxLength())
+      {
+         return NO_IDS;
+      }
+      if (probing[length])
+      {
+         char[] buffer = new char[length];
+         for (int i = 0; i < length; i++)
+         {
+            buffer[i] = WordStore.fold(s.charAt(i));
+         }
+         return probe(buffer, length);
+      }
+      return neighbors(-1, s, length);
+   }
+
+   /**
+    * @return the ids of the neighbors of the word with the given id, in
+    * ascending order
+    */
+   int[] neighbors(int id)
+   {
+      int length = lengthOf(id);
+      if (probing[length])
+      {
+         char[] buffer = new char[length];
+         for (int i = 0; i < length; i++)
+         {
+            buffer[i] = words.charAt(id, i);
+         }
+         return probe(buffer, length);
+      }
+      return neighbors(id, null, length);
+   }
+
+   /**
+    * Changes each letter of s in turn to every other letter found at that
+    * position in words of its length, and looks each change up in the hash
+    * table. s is changed in place and restored before returning.
+    */
+   private int[] probe(char[] s, int length)
+   {
+      int hash = hash(s, length);
+      int[] found = NO_IDS;
+      int count = 0;
+      for (int position = 0; position < length; position++)
+      {
+         char original = s[position];
+         int power = powers[length - 1 - position];
+         for (char c : letters[length][position])
+         {
+            if (c == original)
+            {
+               continue;
+            }
+            s[position] = c;
+            int id = find(s, length, hash + ((c - original) * power));
+            if (id >= 0)
+            {
+               if (count == found.length)
+               {
+                  found = Arrays.copyOf(found, Math.max(8, count * 2));
+               }
+               found[count++] = id;
+            }
+         }
+         s[position] = original;
+      }
+      found = Arrays.copyOf(found, count);
+      Arrays.sort(found);
+      return found;
+   }
+
+   /**
+    * @return the id of the word spelled by s, whose hash is given, or -1 if
+    * it is not in the index
+    */
+   private int find(char[] s, int length, int hash)
+   {
+      long[] table = tables[length];
+      for (int slot = slot(hash, table); table[slot] != -1; slot = (slot + 1) & (table.length - 1))
+      {
+         int id = (int) table[slot];
+         if ((int) (table[slot] >>> 32) == hash && matches(id, s, length))
+         {
+            return id;
+         }
+      }
+      return -1;
+   }
+
+   private boolean matches(int id, char[] s, int length)
+   {
+      for (int i = 0; i < length; i++)
+      {
+         if (words.charAt(id, i) != s[i])
+         {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   /**
+    * Looks up the neighbors of the stored word with the given id or, if s
+    * is not null, of s.
+    */
+   private int[] neighbors(int id, String s, int length)
+   {
+      int first = firstOfLength(length);
+      int[] found = NO_IDS;
+      int count = 0;
+      for (int position = 0; position < length; position++)
+      {
+         int[] rows = byPattern[length][position];
+         int low = 0;
+         int high = rows.length;
+         while (low < high)
+         {
+            int middle = (low + high) >>> 1;
+            if (compare(first + rows[middle], id, s, position) < 0)
+            {
+               low = middle + 1;
+            }
+            else
+            {
+               high = middle;
+            }
+         }
+         for (int i = low; i < rows.length && compare(first + rows[i], id, s, position) == 0; i++)
+         {
+            if (compare(first + rows[i], id, s, -1) != 0)
+            {
+               if (count == found.length)
+               {
+                  found = Arrays.copyOf(found, Math.max(8, count * 2));
+               }
+               found[count++] = first + rows[i];
+            }
+         }
+      }
+      found = Arrays.copyOf(found, count);
+      Arrays.sort(found);
+      return found;
+   }
+
+   private int compare(int row, int id, String s, int wildcard)
+   {
+      return s == null ? words.compare(row, id, wildcard) : words.compare(row, s, wildcard);
+   }
+}
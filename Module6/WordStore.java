@@ -0,0 +1,323 @@
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Stores the words of a Doublets lexicon compactly. The characters of all
+ * the words are packed back to back into one byte array, one byte per
+ * character, with an int offset table saying where each word starts, so a
+ * word costs its length plus four bytes instead of a String and a tree
+ * node. If some character does not fit in one byte, the words are packed
+ * into a char array instead, two bytes per character. Every word is named
+ * by an int id, its position in the table.
+ *
+ * Words are kept in lower case, in order of length and then ascending
+ * order, so the words of one length have consecutive ids. Lookups fold the
+ * case of each character as they compare it, so finding a word takes a
+ * binary search over the words of its length and allocates nothing.
+ */
+final class WordStore
+{
+   // Exactly one of these holds the characters.
+   private final byte[] bytes;
+   private final char[] chars;
+   private final int[] offsets;
+   private final int[] firstOfLength;
+
+   /**
+    * Stores the given words, in any order and any case. Duplicates, after
+    * folding case, are stored once.
+    */
+   WordStore(Collection<? extends CharSequence> words)
+   {
+      String[] folded = new String[words.size()];
+      int count = 0;
+      char[] buffer = new char[16];
+      boolean wide = false;
+      for (CharSequence word : words)
+      {
+         if (word.length() > buffer.length)
+         {
+            buffer = new char[word.length()];
+         }
+         for (int i = 0; i < word.length(); i++)
+         {
+            char c = fold(word.charAt(i));
+            wide |= c > 0xFF;
+            buffer[i] = c;
+         }
+         folded[count++] = new String(buffer, 0, word.length());
+      }
+      Arrays.sort(folded, 0, count, Comparator.comparingInt(String::length).thenComparing(Comparator.naturalOrder()));
+      int distinct = 0;
+      int total = 0;
+      for (int i = 0; i < count; i++)
+      {
+         if (distinct == 0 || !folded[i].equals(folded[distinct - 1]))
+         {
+            folded[distinct++] = folded[i];
+            total += folded[i].length();
+         }
+      }
+      bytes = wide ? null : new byte[total];
+      chars = wide ? new char[total] : null;
+      offsets = new int[distinct + 1];
+      for (int id = 0; id < distinct; id++)
+      {
+         String word = folded[id];
+         int offset = offsets[id];
+         if (wide)
+         {
+            word.getChars(0, word.length(), chars, offset);
+         }
+         else
+         {
+            for (int i = 0; i < word.length(); i++)
+            {
+               bytes[offset + i] = (byte) word.charAt(i);
+            }
+         }
+         offsets[id + 1] = offset + word.length();
+      }
+      int maxLength = distinct == 0 ? 0 : folded[distinct - 1].length();
+      firstOfLength = new int[maxLength + 2];
+      int id = 0;
+      for (int length = 0; length < firstOfLength.length; length++)
+      {
+         while (id < distinct && length(id) < length)
+         {
+            id++;
+         }
+         firstOfLength[length] = id;
+      }
+   }
+
+   private WordStore(byte[] bytes, int[] offsets, int[] firstOfLength)
+   {
+      this.bytes = bytes;
+      this.chars = null;
+      this.offsets = offsets;
+      this.firstOfLength = firstOfLength;
+   }
+
+   /**
+    * Stores words packed as in a lexicon file: back to back, one byte per
+    * character, in ascending order and one case. The words are folded in
+    * place and ordered by length with a counting sort, so no String is made
+    * for a word. If folding changes their order, as it can for words with
+    * characters between the two cases of a letter, the words are made into
+    * Strings and stored as by the other constructor.
+    *
+    * @param text the characters of the words, which are overwritten
+    * @param ends where each word starts in text, plus where the last ends
+    */
+   static WordStore packed(byte[] text, int[] ends)
+   {
+      int count = ends.length - 1;
+      // The lower case of a character that fits in a byte fits in a byte.
+      for (int i = 0; i < text.length; i++)
+      {
+         text[i] = (byte) fold((char) (text[i] & 0xFF));
+      }
+      int maxLength = 0;
+      for (int i = 0; i < count; i++)
+      {
+         maxLength = Math.max(maxLength, ends[i + 1] - ends[i]);
+      }
+      int[] firstOfLength = new int[maxLength + 2];
+      for (int i = 0; i < count; i++)
+      {
+         firstOfLength[ends[i + 1] - ends[i] + 1]++;
+      }
+      for (int length = 1; length < firstOfLength.length; length++)
+      {
+         firstOfLength[length] += firstOfLength[length - 1];
+      }
+      int[] order = new int[count];
+      int[] next = firstOfLength.clone();
+      for (int i = 0; i < count; i++)
+      {
+         order[next[ends[i + 1] - ends[i]]++] = i;
+      }
+      byte[] bytes = new byte[text.length];
+      int[] offsets = new int[count + 1];
+      for (int id = 0; id < count; id++)
+      {
+         int from = ends[order[id]];
+         int length = ends[order[id] + 1] - from;
+         System.arraycopy(text, from, bytes, offsets[id], length);
+         offsets[id + 1] = offsets[id] + length;
+         if (id > firstOfLength[length] && compare(bytes, offsets[id - 1], offsets[id], length) >= 0)
+         {
+            List<String> words = new ArrayList<String>(count);
+            for (int i = 0; i < count; i++)
+            {
+               words.add(new String(text, ends[i], ends[i + 1] - ends[i], StandardCharsets.ISO_8859_1));
+            }
+            return new WordStore(words);
+         }
+      }
+      return new WordStore(bytes, offsets, firstOfLength);
+   }
+
+   private static int compare(byte[] bytes, int offset, int otherOffset, int length)
+   {
+      for (int i = 0; i < length; i++)
+      {
+         int c = (bytes[offset + i] & 0xFF) - (bytes[otherOffset + i] & 0xFF);
+         if (c != 0)
+         {
+            return c;
+         }
+      }
+      return 0;
+   }
+
+   /**
+    * @return c in lower case
+    */
+   static char fold(char c)
+   {
+      if (c < 0x80)
+      {
+         return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+      }
+      return Character.toLowerCase(c);
+   }
+
+   /**
+    * @return the number of words
+    */
+   int size()
+   {
+      return offsets.length - 1;
+   }
+
+   /**
+    * @return the number of characters of the longest word
+    */
+   int maxLength()
+   {
+      return firstOfLength.length - 2;
+   }
+
+   /**
+    * @return the id of the first word with the given number of characters,
+    * or of the first longer word; the words of that length end where those
+    * of the next length start
+    */
+   int firstOfLength(int length)
+   {
+      return firstOfLength[Math.max(0, Math.min(length, firstOfLength.length - 1))];
+   }
+
+   /**
+    * @return the number of characters of the word with the given id
+    */
+   int length(int id)
+   {
+      return offsets[id + 1] - offsets[id];
+   }
+
+   /**
+    * @return the character at index of the word with the given id
+    */
+   char charAt(int id, int index)
+   {
+      return at(offsets[id] + index);
+   }
+
+   private char at(int offset)
+   {
+      return bytes != null ? (char) (bytes[offset] & 0xFF) : chars[offset];
+   }
+
+   /**
+    * @return the word with the given id
+    */
+   String word(int id)
+   {
+      if (bytes == null)
+      {
+         return new String(chars, offsets[id], length(id));
+      }
+      return new String(bytes, offsets[id], length(id), StandardCharsets.ISO_8859_1);
+   }
+
+   /**
+    * @return the id of word, ignoring case, or -1 if it is not stored
+    */
+   int id(CharSequence word)
+   {
+      int length = word.length();
+      int low = firstOfLength(length);
+      int high = firstOfLength(length + 1) - 1;
+      while (low <= high)
+      {
+         int middle = (low + high) >>> 1;
+         int c = compare(middle, word, -1);
+         if (c < 0)
+         {
+            low = middle + 1;
+         }
+         else if (c > 0)
+         {
+            high = middle - 1;
+         }
+         else
+         {
+            return middle;
+         }
+      }
+      return -1;
+   }
+
+   /**
+    * Compares the word with the given id to another word of the same length,
+    * ignoring case and the character at skip.
+    *
+    * @param skip the index of the character to ignore, or -1 for none
+    * @return a negative number, zero or a positive number as the stored word
+    * comes before, is equal to or comes after word
+    */
+   int compare(int id, CharSequence word, int skip)
+   {
+      int offset = offsets[id];
+      for (int i = 0; i < word.length(); i++)
+      {
+         int c = at(offset + i) - fold(word.charAt(i));
+         if (c != 0 && i != skip)
+         {
+            return c;
+         }
+      }
+      return 0;
+   }
+
+   /**
+    * Compares two stored words of the same length, ignoring the character at
+    * skip.
+    *
+    * @param skip the index of the character to ignore, or -1 for none
+    * @return a negative number, zero or a positive number as the first word
+    * comes before, is equal to or comes after the second
+    */
+   int compare(int id, int otherId, int skip)
+   {
+      int offset = offsets[id];
+      int otherOffset = offsets[otherId];
+      int length = length(id);
+      for (int i = 0; i < length; i++)
+      {
+         int c = at(offset + i) - at(otherOffset + i);
+         if (c != 0 && i != skip)
+         {
+            return c;
+         }
+      }
+      return 0;
+   }
+}